@@ -7,24 +7,65 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Locale;
 import java.util.Properties;
 
 /**
  * Database configuration singleton managing HikariCP connection pool.
  * Loads configuration from database.properties and provides database connections.
+ * Other configurations (e.g. an in-memory H2 database for benchmarks) can be
+ * created directly from Properties.
  */
 public class DatabaseConfig {
+
+    /**
+     * SQL backend, chosen with {@code db.backend} or inferred from the JDBC URL.
+     */
+    public enum Backend {
+        MYSQL,
+        H2
+    }
+
+    /**
+     * Column type for course and assignment IDs in newly created tables, chosen with
+     * {@code db.idStorage}. Existing tables keep the type they were created with.
+     */
+    public enum IdStorage {
+        /** VARCHAR(36) holding the UUID string */
+        TEXT,
+        /** BINARY(16) holding the UUID bytes; smaller primary and secondary indexes */
+        BINARY
+    }
+
+    // File-based embedded database used when db.backend=h2 and no db.url is given
+    private static final String DEFAULT_H2_URL =
+        "jdbc:h2:./data/jscheduler;MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+
     private static DatabaseConfig instance;
     private final HikariDataSource dataSource;
+    private final Backend backend;
+    private final IdStorage idStorage;
+    private final int batchSize;
 
     private DatabaseConfig() {
-        Properties props = loadProperties();
+        this(loadProperties());
+    }
+
+    public DatabaseConfig(Properties props) {
+        this.backend = resolveBackend(props);
+        this.idStorage = resolveIdStorage(props);
         HikariConfig config = new HikariConfig();
 
         // Connection settings
-        config.setJdbcUrl(props.getProperty("db.url"));
-        config.setUsername(props.getProperty("db.username"));
-        config.setPassword(props.getProperty("db.password"));
+        if (backend == Backend.H2) {
+            config.setJdbcUrl(props.getProperty("db.url", DEFAULT_H2_URL));
+            config.setUsername(props.getProperty("db.username", "sa"));
+            config.setPassword(props.getProperty("db.password", ""));
+        } else {
+            config.setJdbcUrl(props.getProperty("db.url"));
+            config.setUsername(props.getProperty("db.username"));
+            config.setPassword(props.getProperty("db.password"));
+        }
 
         // Pool settings
         config.setMaximumPoolSize(Integer.parseInt(
@@ -38,16 +79,56 @@ public class DatabaseConfig {
         config.setMaxLifetime(Long.parseLong(
             props.getProperty("db.pool.maxLifetime", "1800000")));
 
+        // Connector/J statement settings: rewrite JDBC batches into multi-row
+        // INSERTs, cache prepared statements per connection and use cursor fetch
+        if (props.getProperty("db.url", "").startsWith("jdbc:mysql:")) {
+            config.addDataSourceProperty("rewriteBatchedStatements",
+                props.getProperty("db.rewriteBatchedStatements", "true"));
+            config.addDataSourceProperty("cachePrepStmts",
+                props.getProperty("db.cachePrepStmts", "true"));
+            config.addDataSourceProperty("prepStmtCacheSize",
+                props.getProperty("db.prepStmtCacheSize", "250"));
+            config.addDataSourceProperty("prepStmtCacheSqlLimit",
+                props.getProperty("db.prepStmtCacheSqlLimit", "2048"));
+            config.addDataSourceProperty("useServerPrepStmts",
+                props.getProperty("db.useServerPrepStmts", "true"));
+            // Honour Statement.setFetchSize so paged reads are not fully buffered
+            config.addDataSourceProperty("useCursorFetch",
+                props.getProperty("db.useCursorFetch", "true"));
+        }
+
         // Additional settings
         config.setAutoCommit(false); // Explicit transaction control
         config.setConnectionTestQuery("SELECT 1");
 
+        this.batchSize = Integer.parseInt(props.getProperty("db.batch.size", "500"));
         this.dataSource = new HikariDataSource(config);
     }
 
-    private Properties loadProperties() {
+    private static Backend resolveBackend(Properties props) {
+        String backend = props.getProperty("db.backend");
+        if (backend != null && !backend.isBlank()) {
+            try {
+                return Backend.valueOf(backend.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unknown db.backend: " + backend, e);
+            }
+        }
+        return props.getProperty("db.url", "").startsWith("jdbc:h2:") ? Backend.H2 : Backend.MYSQL;
+    }
+
+    private static IdStorage resolveIdStorage(Properties props) {
+        String idStorage = props.getProperty("db.idStorage", "text");
+        try {
+            return IdStorage.valueOf(idStorage.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown db.idStorage: " + idStorage, e);
+        }
+    }
+
+    private static Properties loadProperties() {
         Properties props = new Properties();
-        try (InputStream input = getClass().getClassLoader()
+        try (InputStream input = DatabaseConfig.class.getClassLoader()
                 .getResourceAsStream("database.properties")) {
             if (input == null) {
                 throw new RuntimeException("Unable to find database.properties");
@@ -70,6 +151,21 @@ public class DatabaseConfig {
         return dataSource.getConnection();
     }
 
+    public Backend getBackend() {
+        return backend;
+    }
+
+    public IdStorage getIdStorage() {
+        return idStorage;
+    }
+
+    /**
+     * Number of rows sent per JDBC batch by bulk write paths.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
     public void close() {
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
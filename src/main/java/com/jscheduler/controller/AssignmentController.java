@@ -3,6 +3,7 @@ package com.jscheduler.controller;
 import com.jscheduler.model.Assignment;
 import com.jscheduler.model.AssignmentStatus;
 import com.jscheduler.model.Course;
+import com.jscheduler.repository.OptimisticLockException;
 import com.jscheduler.service.AssignmentService;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -86,20 +87,34 @@ public class AssignmentController {
         LocalDateTime dueDateTime = LocalDateTime.of(dueDate, LocalTime.of(hour, minute));
 
         if (editingAssignment != null) {
-            editingAssignment.setTitle(title);
-            editingAssignment.setDescription(description);
-            editingAssignment.setNotes(notes);
-            editingAssignment.setStatus(status);
-            editingAssignment.setDueDate(dueDateTime);
-            editingAssignment.setSubmissionDeadline(dueDateTime);
-            assignmentService.updateAssignment(editingAssignment);
-            return editingAssignment;
+            // Applied to a fresh copy, so a rejected edit never reaches the shared instance
+            try {
+                return assignmentService.updateAssignment(editingAssignment.getId(), assignment -> {
+                    assignment.setTitle(title);
+                    assignment.setDescription(description);
+                    assignment.setNotes(notes);
+                    assignment.setStatus(status);
+                    assignment.setDueDate(dueDateTime);
+                    assignment.setSubmissionDeadline(dueDateTime);
+                });
+            } catch (OptimisticLockException | IllegalArgumentException e) {
+                showConflict(e);
+                return null;
+            }
         } else {
             return assignmentService.createAssignment(
                 course.getId(), title, dueDateTime, description, notes, status);
         }
     }
 
+    private void showConflict(RuntimeException e) {
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle("Assignment Not Saved");
+        alert.setHeaderText(null);
+        alert.setContentText(e.getMessage() + "\n\nReopen the assignment to see the latest version.");
+        alert.showAndWait();
+    }
+
     public boolean validate() {
         return !titleField.getText().trim().isEmpty() &&
                dueDatePicker.getValue() != null;
@@ -2,6 +2,7 @@ package com.jscheduler.controller;
 
 import com.jscheduler.model.Assignment;
 import com.jscheduler.service.AssignmentService;
+import com.jscheduler.service.ScheduleSnapshot;
 import com.jscheduler.util.DateUtil;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
@@ -23,8 +24,8 @@ public class CalendarController {
     @FXML private GridPane calendarGrid;
     @FXML private VBox upcomingList;
 
-    private AssignmentService assignmentService;
     private YearMonth currentMonth;
+    private ScheduleSnapshot snapshot;
 
     @FXML
     public void initialize() {
@@ -32,7 +33,9 @@ public class CalendarController {
     }
 
     public void setServices(AssignmentService assignmentService) {
-        this.assignmentService = assignmentService;
+        // One load for both parts of the screen, so they agree with each other;
+        // month navigation reuses it instead of reloading the schedule per click
+        snapshot = assignmentService.snapshot();
         refreshCalendar();
         refreshUpcomingList();
     }
@@ -81,7 +84,8 @@ public class CalendarController {
         // Get assignments for this month
         LocalDate monthStart = currentMonth.atDay(1);
         LocalDate monthEnd = currentMonth.atEndOfMonth();
-        List<Assignment> monthAssignments = assignmentService.getAssignmentsBetweenDates(
+        LocalDate today = snapshot.getNow().toLocalDate();
+        List<Assignment> monthAssignments = snapshot.getAssignmentsBetweenDates(
             DateUtil.startOfDay(monthStart),
             DateUtil.endOfDay(monthEnd)
         );
@@ -93,7 +97,7 @@ public class CalendarController {
 
         for (int day = 1; day <= daysInMonth; day++) {
             LocalDate date = currentMonth.atDay(day);
-            VBox dayCell = createDayCell(date, monthAssignments);
+            VBox dayCell = createDayCell(date, today, monthAssignments);
 
             calendarGrid.add(dayCell, col, row);
 
@@ -105,7 +109,7 @@ public class CalendarController {
         }
     }
 
-    private VBox createDayCell(LocalDate date, List<Assignment> monthAssignments) {
+    private VBox createDayCell(LocalDate date, LocalDate today, List<Assignment> monthAssignments) {
         VBox cell = new VBox(2);
         cell.getStyleClass().add("calendar-cell");
         cell.setPadding(new Insets(5));
@@ -115,7 +119,7 @@ public class CalendarController {
         Label dayNumber = new Label(String.valueOf(date.getDayOfMonth()));
         dayNumber.getStyleClass().add("calendar-day-number");
 
-        if (date.equals(LocalDate.now())) {
+        if (date.equals(today)) {
             cell.getStyleClass().add("calendar-today");
         }
 
@@ -149,11 +153,11 @@ public class CalendarController {
     }
 
     private void refreshUpcomingList() {
-        if (upcomingList == null || assignmentService == null) return;
+        if (upcomingList == null) return;
 
         upcomingList.getChildren().clear();
 
-        List<Assignment> upcoming = assignmentService.getUpcomingAssignments(14);
+        List<Assignment> upcoming = snapshot.getUpcomingAssignments(14);
 
         if (upcoming.isEmpty()) {
             Label emptyLabel = new Label("No upcoming assignments in the next 2 weeks");
@@ -2,9 +2,11 @@ package com.jscheduler.controller;
 
 import com.jscheduler.model.Course;
 import com.jscheduler.model.Semester;
+import com.jscheduler.repository.OptimisticLockException;
 import com.jscheduler.service.CourseService;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
@@ -71,18 +73,26 @@ public class CourseController {
         Semester semester = new Semester(season, year);
 
         if (editingCourse != null) {
-            editingCourse.setName(name);
-            editingCourse.setCode(code);
-            editingCourse.setProfessor(professor);
-            editingCourse.setDescription(description);
-            editingCourse.setSemester(semester);
-            courseService.updateCourse(editingCourse);
-            return editingCourse;
+            // Applied to a fresh copy, so a rejected edit never reaches the shared instance
+            try {
+                return courseService.updateCourse(editingCourse.getId(), course -> {
+                    course.setName(name);
+                    course.setCode(code);
+                    course.setProfessor(professor);
+                    course.setDescription(description);
+                    course.setSemester(semester);
+                });
+            } catch (OptimisticLockException | IllegalArgumentException e) {
+                Alert alert = new Alert(Alert.AlertType.WARNING);
+                alert.setTitle("Course Not Saved");
+                alert.setHeaderText(null);
+                alert.setContentText(e.getMessage() + "\n\nReopen the course to see the latest version.");
+                alert.showAndWait();
+                return null;
+            }
         } else {
             Course course = courseService.createCourse(name, code, professor, semester);
-            course.setDescription(description);
-            courseService.updateCourse(course);
-            return course;
+            return courseService.updateCourse(course.getId(), created -> created.setDescription(description));
         }
     }
 
@@ -1,14 +1,23 @@
 package com.jscheduler.controller;
 
 import com.jscheduler.model.Assignment;
+import com.jscheduler.model.AssignmentStatus;
+import com.jscheduler.model.AssignmentSummary;
 import com.jscheduler.model.Course;
+import com.jscheduler.repository.AssignmentQuery;
+import com.jscheduler.repository.CachingCourseRepository;
+import com.jscheduler.repository.ChangeFeedRepository;
+import com.jscheduler.repository.ChangeSet;
 import com.jscheduler.repository.CourseRepository;
-import com.jscheduler.repository.MySQLCourseRepository;
+import com.jscheduler.repository.CourseRepositoryFactory;
 import com.jscheduler.service.AssignmentService;
+import com.jscheduler.service.ChangeFeedPoller;
 import com.jscheduler.service.CourseService;
 import com.jscheduler.service.NotificationService;
+import com.jscheduler.service.ScheduleStatistics;
 import com.jscheduler.service.SearchService;
 import com.jscheduler.util.DateUtil;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -19,17 +28,29 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.VBox;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 public class MainController {
 
+    private static final Path WARM_START_FILE = Path.of("data", "course-cache.bin");
+    // More rows than anyone reads through; the best matches come first
+    private static final int SEARCH_RESULT_LIMIT = 200;
+
     @FXML private BorderPane rootPane;
     @FXML private ListView<Course> courseListView;
-    @FXML private TableView<Assignment> assignmentTableView;
-    @FXML private TableColumn<Assignment, String> titleColumn;
-    @FXML private TableColumn<Assignment, String> dueDateColumn;
-    @FXML private TableColumn<Assignment, String> statusColumn;
+    @FXML private TableView<AssignmentSummary> assignmentTableView;
+    @FXML private TableColumn<AssignmentSummary, String> titleColumn;
+    @FXML private TableColumn<AssignmentSummary, String> dueDateColumn;
+    @FXML private TableColumn<AssignmentSummary, String> statusColumn;
     @FXML private TextField searchField;
     @FXML private ComboBox<String> filterComboBox;
     @FXML private Label statusLabel;
@@ -40,19 +61,30 @@ public class MainController {
     private AssignmentService assignmentService;
     private SearchService searchService;
     private NotificationService notificationService;
+    private ScheduleStatistics statistics;
+    private ChangeFeedPoller changeFeedPoller;
 
     private ObservableList<Course> courseList;
-    private ObservableList<Assignment> assignmentList;
+    private ObservableList<AssignmentSummary> assignmentList;
+    // Query the assignment table was loaded with, re-checked against rows changed by
+    // other clients; null while it shows search results
+    private Supplier<AssignmentQuery> tableQuery;
+    private boolean applyingChanges;
 
     @FXML
     public void initialize() {
         assignmentTableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         try {
             // Initialize repository and services
-            repository = new MySQLCourseRepository();
-            courseService = new CourseService(repository);
+            repository = new CachingCourseRepository(
+                CourseRepositoryFactory.createDatabaseRepository(), WARM_START_FILE);
             assignmentService = new AssignmentService(repository);
-            searchService = new SearchService(courseService, assignmentService);
+            courseService = new CourseService(repository, assignmentService.getSearchIndex());
+            courseService.addChangeListener(assignmentService.getDueDateIndex());
+            statistics = new ScheduleStatistics(repository::streamCourses);
+            courseService.addChangeListener(statistics);
+            assignmentService.addChangeListener(statistics);
+            searchService = new SearchService(assignmentService);
             notificationService = new NotificationService(assignmentService);
 
             // Initialize observable lists
@@ -65,9 +97,18 @@ public class MainController {
             setupFilterComboBox();
             setupSearchField();
 
-            // Load initial data
-            refreshCourseList();
-            refreshDashboard();
+            // Load initial data. The first screen of a warm start comes from the cache
+            // snapshot of the last session, so the change feed starts after the refresh.
+            if (repository instanceof CachingCourseRepository cache && cache.isWarmStarted()) {
+                refreshCourseList();
+                refreshDashboard();
+                refreshInBackground(cache);
+            } else {
+                Instant watermark = currentWatermark();
+                refreshCourseList();
+                refreshDashboard();
+                startChangeFeed(watermark);
+            }
 
             // Start notification service
             notificationService.start();
@@ -109,7 +150,7 @@ public class MainController {
 
         courseListView.getSelectionModel().selectedItemProperty().addListener(
             (obs, oldVal, newVal) -> {
-                if (newVal != null) {
+                if (newVal != null && !applyingChanges) {
                     loadAssignmentsForCourse(newVal);
                 }
             }
@@ -120,18 +161,18 @@ public class MainController {
         assignmentTableView.setItems(assignmentList);
 
         titleColumn.setCellValueFactory(cellData ->
-            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getTitle()));
+            new javafx.beans.property.SimpleStringProperty(cellData.getValue().title()));
 
         dueDateColumn.setCellValueFactory(cellData ->
             new javafx.beans.property.SimpleStringProperty(
-                DateUtil.formatDateTime(cellData.getValue().getDueDate())));
+                DateUtil.formatDateTime(cellData.getValue().dueDate())));
 
         statusColumn.setCellValueFactory(cellData ->
             new javafx.beans.property.SimpleStringProperty(
-                cellData.getValue().getStatus().getDisplayName()));
+                cellData.getValue().status().getDisplayName()));
 
         assignmentTableView.setRowFactory(tv -> {
-            TableRow<Assignment> row = new TableRow<>();
+            TableRow<AssignmentSummary> row = new TableRow<>();
             row.setOnMouseClicked(event -> {
                 if (event.getClickCount() == 2 && !row.isEmpty()) {
                     editAssignment(row.getItem());
@@ -169,25 +210,126 @@ public class MainController {
         if (selectedCourse != null) {
             loadAssignmentsForCourse(selectedCourse);
         } else {
-            assignmentList.clear();
-            assignmentList.addAll(assignmentService.getAllAssignments());
+            showAssignments(() -> new AssignmentQuery().setSortOrder(AssignmentQuery.SortOrder.DUE_DATE));
         }
     }
 
     private void loadAssignmentsForCourse(Course course) {
-        assignmentList.clear();
-        assignmentList.addAll(assignmentService.getAssignmentsByCourse(course.getId()));
+        showAssignments(() -> AssignmentQuery.byCourse(course.getId()));
     }
 
-    private void refreshDashboard() {
-        // Update dashboard statistics
-        int totalCourses = courseService.getAllCourses().size();
-        int totalAssignments = assignmentService.getAllAssignments().size();
-        int overdueCount = assignmentService.getOverdueAssignments().size();
-        int upcomingCount = assignmentService.getUpcomingAssignments(7).size();
+    /**
+     * Fills the assignment table from a query, which is evaluated again whenever rows
+     * change, so time-relative filters like "Overdue" stay current.
+     */
+    private void showAssignments(Supplier<AssignmentQuery> query) {
+        tableQuery = query;
+        assignmentList.setAll(assignmentService.getAssignmentSummaries(query.get()));
+    }
 
+    private void refreshDashboard() {
+        // Counters are kept current by change events, so this does not touch the repository
+        ScheduleStatistics.Summary summary = statistics.summary(LocalDateTime.now());
         updateStatusLabel("Courses: %d | Assignments: %d | Upcoming: %d | Overdue: %d".formatted(
-                totalCourses, totalAssignments, upcomingCount, overdueCount));
+                summary.courseCount(), summary.assignmentCount(), summary.upcomingCount(), summary.overdueCount()));
+    }
+
+    /**
+     * Applies changes made by other clients, touching only the affected rows of the
+     * course list and the assignment table.
+     */
+    private void applyChanges(ChangeSet changes) {
+        assignmentService.applyChanges(changes);
+        if (changes.resetRequired()) {
+            handleRefresh();
+            return;
+        }
+
+        Set<String> deletedCourseIds = new HashSet<>(changes.deletedCourseIds());
+        Set<String> removedAssignmentIds = new HashSet<>();
+        changes.deletedAssignments().forEach(deleted -> removedAssignmentIds.add(deleted.assignmentId()));
+        List<Assignment> changedAssignments = new ArrayList<>(changes.changedAssignments());
+        AssignmentQuery query = tableQuery != null ? tableQuery.get() : null;
+
+        applyingChanges = true;
+        try {
+            for (Course course : changes.changedCourses()) {
+                int index = indexOfCourse(course.getId());
+                if (index >= 0) {
+                    courseList.set(index, course);
+                } else {
+                    courseList.add(course);
+                }
+
+                // A changed course carries its complete assignment list
+                Set<String> currentIds = new HashSet<>();
+                course.getAssignments().forEach(a -> currentIds.add(a.getId()));
+                for (AssignmentSummary row : assignmentList) {
+                    if (course.getId().equals(row.courseId()) && !currentIds.contains(row.id())) {
+                        removedAssignmentIds.add(row.id());
+                    }
+                }
+                changedAssignments.addAll(course.getAssignments());
+            }
+            courseList.removeIf(course -> deletedCourseIds.contains(course.getId()));
+        } finally {
+            applyingChanges = false;
+        }
+
+        assignmentList.removeIf(row ->
+            removedAssignmentIds.contains(row.id()) || deletedCourseIds.contains(row.courseId()));
+        for (Assignment assignment : changedAssignments) {
+            AssignmentSummary summary = AssignmentSummary.of(assignment);
+            int index = indexOfAssignment(assignment.getId());
+            if (query != null && !query.matches(assignment)) {
+                // e.g. an assignment submitted elsewhere leaves the "Overdue" view
+                if (index >= 0) {
+                    assignmentList.remove(index);
+                }
+            } else if (index >= 0) {
+                AssignmentSummary current = assignmentList.get(index);
+                if (!summary.equals(current)) {
+                    if (Objects.equals(summary.dueDate(), current.dueDate())) {
+                        assignmentList.set(index, summary);
+                    } else {
+                        assignmentList.remove(index);
+                        insertByDueDate(summary);
+                    }
+                }
+            } else if (query != null) {
+                // Search results are not re-run, so they only pick up edits
+                insertByDueDate(summary);
+            }
+        }
+
+        refreshDashboard();
+    }
+
+    private int indexOfCourse(String courseId) {
+        for (int i = 0; i < courseList.size(); i++) {
+            if (courseList.get(i).getId().equals(courseId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOfAssignment(String assignmentId) {
+        for (int i = 0; i < assignmentList.size(); i++) {
+            if (assignmentList.get(i).id().equals(assignmentId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insertByDueDate(AssignmentSummary summary) {
+        int index = 0;
+        while (index < assignmentList.size()
+                && !assignmentList.get(index).dueDate().isAfter(summary.dueDate())) {
+            index++;
+        }
+        assignmentList.add(index, summary);
     }
 
     @FXML
@@ -293,13 +435,50 @@ public class MainController {
         }
     }
 
-    private void editAssignment(Assignment assignment) {
-        // TODO: Implement edit assignment dialog
+    private void editAssignment(AssignmentSummary summary) {
+        // The table only holds summaries; load description and notes now that it's opened
+        Optional<Assignment> loaded = assignmentService.getAssignmentById(summary.id());
+        if (loaded.isEmpty()) {
+            showError("Not Found", "This assignment no longer exists.");
+            refreshAssignmentList();
+            return;
+        }
+        Assignment assignment = loaded.get();
+
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/assignment-dialog.fxml"));
+            Parent dialogContent = loader.load();
+            AssignmentController controller = loader.getController();
+            controller.setServices(assignmentService,
+                courseService.getCourseById(assignment.getCourseId()).orElse(null));
+            controller.setAssignment(assignment);
+
+            Dialog<Assignment> dialog = new Dialog<>();
+            dialog.setTitle("Edit Assignment");
+            dialog.getDialogPane().setContent(dialogContent);
+            dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+            dialog.setResultConverter(buttonType -> {
+                if (buttonType == ButtonType.OK) {
+                    return controller.createAssignment();
+                }
+                return null;
+            });
+
+            Optional<Assignment> result = dialog.showAndWait();
+            result.ifPresent(updated -> {
+                refreshAssignmentList();
+                refreshDashboard();
+                updateStatusLabel("Assignment updated: " + updated.getTitle());
+            });
+        } catch (IOException e) {
+            showError("Error", "Failed to open assignment dialog: " + e.getMessage());
+        }
     }
 
     @FXML
     private void handleDeleteAssignment() {
-        Assignment selected = assignmentTableView.getSelectionModel().getSelectedItem();
+        AssignmentSummary selected = assignmentTableView.getSelectionModel().getSelectedItem();
         if (selected == null) {
             showError("No Selection", "Please select an assignment to delete.");
             return;
@@ -308,56 +487,57 @@ public class MainController {
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
         confirm.setTitle("Confirm Delete");
         confirm.setHeaderText("Delete Assignment");
-        confirm.setContentText("Are you sure you want to delete '" + selected.getTitle() + "'?");
+        confirm.setContentText("Are you sure you want to delete '" + selected.title() + "'?");
 
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                assignmentService.deleteAssignment(selected.getCourseId(), selected.getId());
+                assignmentService.deleteAssignment(selected.courseId(), selected.id());
                 refreshAssignmentList();
                 refreshDashboard();
-                updateStatusLabel("Assignment deleted: " + selected.getTitle());
+                updateStatusLabel("Assignment deleted: " + selected.title());
             }
         });
     }
 
     private void performSearch(String query) {
-        List<SearchService.SearchResult> results = searchService.search(query);
-        assignmentList.clear();
+        List<SearchService.SearchResult> results = searchService.search(query, SEARCH_RESULT_LIMIT);
 
+        // Results carry their assignment, so nothing is fetched per result
+        List<AssignmentSummary> matches = new ArrayList<>();
         for (SearchService.SearchResult result : results) {
-            if ("Assignment".equals(result.type())) {
-                assignmentService.getAssignmentById(result.id())
-                    .ifPresent(assignmentList::add);
+            if (result.assignment() != null) {
+                matches.add(AssignmentSummary.of(result.assignment()));
             }
         }
+        tableQuery = null;
+        assignmentList.setAll(matches);
     }
 
     private void applyFilter() {
         String filter = filterComboBox.getValue();
         Course selectedCourse = courseListView.getSelectionModel().getSelectedItem();
 
-        List<Assignment> filtered;
+        Supplier<AssignmentQuery> query;
         if ("All".equals(filter)) {
-            filtered = selectedCourse != null ?
-                assignmentService.getAssignmentsByCourse(selectedCourse.getId()) :
-                assignmentService.getAllAssignments();
+            query = selectedCourse != null ?
+                () -> AssignmentQuery.byCourse(selectedCourse.getId()) :
+                () -> new AssignmentQuery().setSortOrder(AssignmentQuery.SortOrder.DUE_DATE);
         } else if ("Overdue".equals(filter)) {
-            filtered = assignmentService.getOverdueAssignments();
+            query = () -> AssignmentQuery.overdue(LocalDateTime.now());
         } else {
             var status = switch (filter) {
-                case "Not Started" -> com.jscheduler.model.AssignmentStatus.NOT_STARTED;
-                case "In Progress" -> com.jscheduler.model.AssignmentStatus.IN_PROGRESS;
-                case "Submitted" -> com.jscheduler.model.AssignmentStatus.SUBMITTED;
-                case "Late" -> com.jscheduler.model.AssignmentStatus.LATE;
+                case "Not Started" -> AssignmentStatus.NOT_STARTED;
+                case "In Progress" -> AssignmentStatus.IN_PROGRESS;
+                case "Submitted" -> AssignmentStatus.SUBMITTED;
+                case "Late" -> AssignmentStatus.LATE;
                 default -> null;
             };
-            filtered = status != null ?
-                assignmentService.getAssignmentsByStatus(status) :
-                assignmentService.getAllAssignments();
+            query = status != null ?
+                () -> AssignmentQuery.byStatus(status) :
+                () -> new AssignmentQuery().setSortOrder(AssignmentQuery.SortOrder.DUE_DATE);
         }
 
-        assignmentList.clear();
-        assignmentList.addAll(filtered);
+        showAssignments(query);
     }
 
     @FXML
@@ -368,15 +548,71 @@ public class MainController {
 
     @FXML
     private void handleRefresh() {
+        repository.load();
+        showReloadedData();
+        updateStatusLabel("Data refreshed");
+    }
+
+    /**
+     * Reloads the course list off the FX thread, then rebuilds the indexes and views
+     * and starts the change feed.
+     */
+    private void refreshInBackground(CachingCourseRepository cache) {
+        Thread refresher = new Thread(() -> {
+            try {
+                Instant watermark = currentWatermark();
+                cache.refreshAll();
+                Platform.runLater(() -> {
+                    showReloadedData();
+                    startChangeFeed(watermark);
+                });
+            } catch (RuntimeException e) {
+                System.err.println("Background refresh failed: " + e.getMessage());
+            }
+        }, "MainController-refresh");
+        refresher.setDaemon(true);
+        refresher.start();
+    }
+
+    /**
+     * @return The change feed watermark to take before a full load, or null without a change feed
+     */
+    private Instant currentWatermark() {
+        if (repository instanceof ChangeFeedRepository changeFeed) {
+            try {
+                return changeFeed.currentWatermark();
+            } catch (UnsupportedOperationException e) {
+                System.err.println("Change feed unavailable: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Picks up changes made by other clients from the watermark on.
+     */
+    private void startChangeFeed(Instant watermark) {
+        if (watermark != null && repository instanceof ChangeFeedRepository changeFeed) {
+            changeFeedPoller = new ChangeFeedPoller(changeFeed, ChangeFeedPoller.DEFAULT_INTERVAL,
+                changes -> Platform.runLater(() -> applyChanges(changes)));
+            changeFeedPoller.start(watermark);
+        }
+    }
+
+    private void showReloadedData() {
+        assignmentService.scheduleReloaded();
         refreshCourseList();
         refreshAssignmentList();
         refreshDashboard();
-        updateStatusLabel("Data refreshed");
     }
 
     @FXML
     private void handleExit() {
         notificationService.stop();
+        if (changeFeedPoller != null) {
+            changeFeedPoller.stop();
+        }
+        repository.close();
         javafx.application.Platform.exit();
     }
 
@@ -0,0 +1,228 @@
+package com.jscheduler.migration;
+
+import com.jscheduler.model.Course;
+import com.jscheduler.repository.CourseRepository;
+import com.jscheduler.repository.CourseRepositoryFactory;
+import com.jscheduler.repository.DataRepository;
+import com.jscheduler.repository.SnapshotCodec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Bulk export from any CourseRepository to a snapshot file (.json or .bin), and bulk
+ * import from a snapshot file into any CourseRepository.
+ *
+ * Both directions stream: courses are read one at a time and written in batches, so
+ * memory use depends on the batch size, not the size of the data. Each direction returns
+ * the {@link ContentChecksum} of what it transferred, which can be compared against a
+ * checksum of the other side to prove the transfer lossless.
+ *
+ * Usage: mvn compile exec:java -Dexec.mainClass="com.jscheduler.migration.BulkTransfer"
+ *        -Dexec.args="export data/backup.bin --repository db"
+ */
+public final class BulkTransfer {
+
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    private static final int MAX_REPORTED_DIFFERENCES = 20;
+
+    private BulkTransfer() {
+    }
+
+    /**
+     * Writes every course in the repository to the file, replacing it atomically.
+     * @return Checksum of the courses written
+     */
+    public static ContentChecksum exportTo(CourseRepository source, Path target) throws IOException {
+        ContentChecksum checksum = new ContentChecksum();
+        Path tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (Stream<Course> courses = source.streamCourses()) {
+            Iterator<Course> iterator = courses.peek(checksum::add).iterator();
+            SnapshotCodec.forFile(target).write(tempFile, () -> iterator);
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw new IOException("Export failed: " + e.getMessage(), e);
+        }
+
+        Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return checksum;
+    }
+
+    /**
+     * Adds every course in the file to the repository, {@code batchSize} courses per call
+     * to {@link CourseRepository#importCourses}, so timestamps survive the round trip.
+     * @return Checksum of the courses read
+     */
+    public static ContentChecksum importFrom(Path source, CourseRepository target, int batchSize)
+            throws IOException {
+        ContentChecksum checksum = new ContentChecksum();
+        List<Course> batch = new ArrayList<>(batchSize);
+
+        SnapshotCodec.forFile(source).read(source, course -> {
+            checksum.add(course);
+            batch.add(course);
+            if (batch.size() >= batchSize) {
+                target.importCourses(new ArrayList<>(batch));
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            target.importCourses(batch);
+        }
+
+        return checksum;
+    }
+
+    public static ContentChecksum checksum(CourseRepository repository) {
+        ContentChecksum checksum = new ContentChecksum();
+        try (Stream<Course> courses = repository.streamCourses()) {
+            courses.forEach(checksum::add);
+        }
+        return checksum;
+    }
+
+    public static ContentChecksum checksum(Path file) throws IOException {
+        ContentChecksum checksum = new ContentChecksum();
+        SnapshotCodec.forFile(file).read(file, checksum::add);
+        return checksum;
+    }
+
+    /**
+     * Prints whether two checksums match, listing a few of the courses that differ.
+     * @return true if they match
+     */
+    public static boolean report(String sourceName, ContentChecksum source,
+                                 String targetName, ContentChecksum target) {
+        System.out.printf("      %-12s %s%n", sourceName + ":", source);
+        System.out.printf("      %-12s %s%n", targetName + ":", target);
+        if (source.matches(target)) {
+            System.out.println("      ✓ Checksums match");
+            return true;
+        }
+
+        Set<String> differing = source.differingCourseIds(target);
+        System.err.println("      ✗ Checksums differ for " + differing.size() + " courses");
+        differing.stream().sorted().limit(MAX_REPORTED_DIFFERENCES)
+            .forEach(id -> System.err.println("        " + id));
+        return false;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2 || args[0].equals("--help")) {
+            printUsage();
+            System.exit(args.length > 0 && args[0].equals("--help") ? 0 : 2);
+            return;
+        }
+
+        String command = args[0];
+        Path file = Path.of(args[1]);
+        String repositoryType = "db";
+        Path dataDirectory = Path.of("data");
+        int batchSize = DEFAULT_BATCH_SIZE;
+        try {
+            for (int i = 2; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--repository" -> repositoryType = args[++i];
+                    case "--data-dir" -> dataDirectory = Path.of(args[++i]);
+                    case "--batch-size" -> batchSize = Integer.parseInt(args[++i]);
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (!repositoryType.equals("db") && !repositoryType.equals("json")) {
+                throw new IllegalArgumentException("--repository expects db or json: " + repositoryType);
+            }
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("--batch-size expects a positive number");
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e instanceof ArrayIndexOutOfBoundsException ?
+                "Missing option value" : e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+
+        boolean success;
+        CourseRepository repository = openRepository(repositoryType, dataDirectory);
+        try {
+            success = switch (command) {
+                case "export" -> runExport(repository, file);
+                case "import" -> runImport(file, repository, batchSize);
+                case "verify" -> report("file", checksum(file), "repository", checksum(repository));
+                default -> {
+                    System.err.println("Unknown command: " + command);
+                    printUsage();
+                    yield false;
+                }
+            };
+        } catch (Exception e) {
+            System.err.println("✗ " + command + " failed: " + e.getMessage());
+            e.printStackTrace();
+            success = false;
+        } finally {
+            repository.close();
+        }
+
+        if (!success) {
+            System.exit(1);
+        }
+    }
+
+    private static CourseRepository openRepository(String type, Path dataDirectory) {
+        if (type.equals("db")) {
+            return CourseRepositoryFactory.createDatabaseRepository();
+        }
+        // Coalesce the import into one snapshot write, done on close
+        Duration flushDelay = Duration.ofMinutes(10);
+        return new DataRepository(new DataRepository.Options()
+            .setDataDirectory(dataDirectory)
+            .setWriteBehind(flushDelay, flushDelay));
+    }
+
+    private static boolean runExport(CourseRepository repository, Path file) throws IOException {
+        System.out.println("Exporting to " + file + "...");
+        long start = System.nanoTime();
+        ContentChecksum exported = exportTo(repository, file);
+        System.out.printf("      ✓ Exported in %.2f s%n", (System.nanoTime() - start) / 1_000_000_000.0);
+
+        System.out.println("Verifying " + file + "...");
+        return report("exported", exported, "file", checksum(file));
+    }
+
+    private static boolean runImport(Path file, CourseRepository repository, int batchSize) throws IOException {
+        try (Stream<Course> existing = repository.streamCourses()) {
+            if (existing.findAny().isPresent()) {
+                System.err.println("✗ Target repository is not empty; import only adds to an empty one");
+                return false;
+            }
+        }
+
+        System.out.println("Importing " + file + "...");
+        long start = System.nanoTime();
+        ContentChecksum imported = importFrom(file, repository, batchSize);
+        System.out.printf("      ✓ Imported in %.2f s%n", (System.nanoTime() - start) / 1_000_000_000.0);
+
+        System.out.println("Verifying repository...");
+        return report("file", imported, "repository", checksum(repository));
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: BulkTransfer <export|import|verify> <file> [options]");
+        System.out.println("  export               Write every course in the repository to <file> (.json or .bin)");
+        System.out.println("  import               Add every course in <file> to an empty repository");
+        System.out.println("  verify               Compare content checksums of <file> and the repository");
+        System.out.println("  --repository <type>  db (database.properties backend, default) or json");
+        System.out.println("  --data-dir <dir>     Data directory for --repository json (default data)");
+        System.out.println("  --batch-size <n>     Courses per write when importing (default " + DEFAULT_BATCH_SIZE + ")");
+    }
+}
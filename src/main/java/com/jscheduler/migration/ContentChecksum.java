@@ -0,0 +1,194 @@
+package com.jscheduler.migration;
+
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.Course;
+import com.jscheduler.model.Semester;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Order-independent checksum of the content of a set of courses and their assignments.
+ *
+ * Every course row and assignment row is hashed on its own (SHA-256 of a canonical
+ * field encoding, truncated to 64 bits) and the row hashes are added up, so the result
+ * does not depend on the order rows are read in. Sums are kept per table and per course;
+ * a course's checksum covers its own row and all of its assignments. Only these sums are
+ * kept, never the rows, so two stores can be compared with one streaming pass over each.
+ *
+ * Timestamps are compared at second precision, which is what every backend stores.
+ * Not thread-safe.
+ */
+public final class ContentChecksum {
+
+    private static final byte NULL_MARKER = 0;
+    private static final byte VALUE_MARKER = 1;
+
+    private final MessageDigest digest;
+    private final byte[] scratch = new byte[Long.BYTES];
+    private final Map<String, Long> courseChecksums = new HashMap<>();
+    private long courseCount;
+    private long assignmentCount;
+    private long coursesTableChecksum;
+    private long assignmentsTableChecksum;
+
+    public ContentChecksum() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Adds a course and its assignments to the checksum.
+     */
+    public void add(Course course) {
+        long courseHash = hashCourse(course);
+        long courseTotal = courseHash;
+        List<Assignment> assignments = course.getAssignments() != null ? course.getAssignments() : List.of();
+        for (Assignment assignment : assignments) {
+            long assignmentHash = hashAssignment(course.getId(), assignment);
+            courseTotal += assignmentHash;
+            assignmentsTableChecksum += assignmentHash;
+        }
+
+        courseCount++;
+        assignmentCount += assignments.size();
+        coursesTableChecksum += courseHash;
+        courseChecksums.merge(course.getId(), courseTotal, Long::sum);
+    }
+
+    public long getCourseCount() {
+        return courseCount;
+    }
+
+    public long getAssignmentCount() {
+        return assignmentCount;
+    }
+
+    public long getCoursesTableChecksum() {
+        return coursesTableChecksum;
+    }
+
+    public long getAssignmentsTableChecksum() {
+        return assignmentsTableChecksum;
+    }
+
+    /**
+     * @return Checksum of each course (its row plus its assignments) by course ID
+     */
+    public Map<String, Long> getCourseChecksums() {
+        return Collections.unmodifiableMap(courseChecksums);
+    }
+
+    /**
+     * @return true if both checksums cover the same courses and assignments
+     */
+    public boolean matches(ContentChecksum other) {
+        return courseCount == other.courseCount
+            && assignmentCount == other.assignmentCount
+            && coursesTableChecksum == other.coursesTableChecksum
+            && assignmentsTableChecksum == other.assignmentsTableChecksum
+            && courseChecksums.equals(other.courseChecksums);
+    }
+
+    /**
+     * @return IDs of courses that are missing on one side or whose content differs
+     */
+    public Set<String> differingCourseIds(ContentChecksum other) {
+        Set<String> ids = new HashSet<>(courseChecksums.keySet());
+        ids.addAll(other.courseChecksums.keySet());
+        ids.removeIf(id -> Objects.equals(courseChecksums.get(id), other.courseChecksums.get(id)));
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d courses [%016x], %d assignments [%016x]",
+            courseCount, coursesTableChecksum, assignmentCount, assignmentsTableChecksum);
+    }
+
+    // ===== Canonical encoding =====
+
+    private long hashCourse(Course course) {
+        digest.reset();
+        putString(course.getId());
+        putString(course.getName());
+        putString(course.getCode());
+        putString(course.getDescription());
+        putString(course.getProfessor());
+
+        Semester semester = course.getSemester();
+        if (semester == null) {
+            digest.update(NULL_MARKER);
+        } else {
+            digest.update(VALUE_MARKER);
+            putString(semester.getSeason() != null ? semester.getSeason().name() : null);
+            putLong(semester.getYear());
+        }
+        return finish();
+    }
+
+    private long hashAssignment(String courseId, Assignment assignment) {
+        digest.reset();
+        putString(assignment.getId());
+        putString(courseId);
+        putString(assignment.getTitle());
+        putString(assignment.getDescription());
+        putString(assignment.getNotes());
+        putString(assignment.getStatus() != null ? assignment.getStatus().name() : null);
+        putTimestamp(assignment.getDueDate());
+        putTimestamp(assignment.getSubmissionDeadline());
+        putTimestamp(assignment.getCreatedAt());
+        putTimestamp(assignment.getUpdatedAt());
+        return finish();
+    }
+
+    private void putString(String value) {
+        if (value == null) {
+            digest.update(NULL_MARKER);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(VALUE_MARKER);
+        putLong(bytes.length);
+        digest.update(bytes);
+    }
+
+    private void putTimestamp(LocalDateTime value) {
+        if (value == null) {
+            digest.update(NULL_MARKER);
+            return;
+        }
+        digest.update(VALUE_MARKER);
+        putLong(value.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    private void putLong(long value) {
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            scratch[i] = (byte) value;
+            value >>>= 8;
+        }
+        digest.update(scratch);
+    }
+
+    private long finish() {
+        byte[] hash = digest.digest();
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (hash[i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -1,138 +1,415 @@
 package com.jscheduler.migration;
 
 import com.jscheduler.model.Course;
-import com.jscheduler.repository.DataRepository;
-import com.jscheduler.repository.MySQLCourseRepository;
+import com.jscheduler.repository.CourseRepositoryFactory;
+import com.jscheduler.repository.JdbcCourseRepository;
+import com.jscheduler.repository.SnapshotCodec;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Standalone utility to migrate data from JSON to MySQL.
- * Run this once before switching to MySQL repository.
+ * Standalone utility to migrate data from a JSON (or binary) snapshot into the SQL database.
+ * Run this once before switching to the database repository.
+ *
+ * Courses are streamed from the file into a bounded queue and written by several threads,
+ * each committing batches of courses over its own pooled connection. Committed course IDs
+ * are appended to a checkpoint file, so an interrupted run resumes where it stopped.
+ * Once every course is written, a {@link ContentChecksum} of the database is compared
+ * against the one computed while reading the file.
  *
  * Usage: mvn compile exec:java -Dexec.mainClass="com.jscheduler.migration.DataMigrationTool"
+ *        -Dexec.args="--yes --threads 4"
  */
 public class DataMigrationTool {
 
+    private static final Path DEFAULT_SOURCE = Path.of("data", "scheduler-data.json");
+    private static final int DEFAULT_BATCH_SIZE = 50;
+    private static final int DEFAULT_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    // Marks the end of input for one writer thread; compared by identity
+    private static final List<Course> END_OF_INPUT = new ArrayList<>();
+
     public static void main(String[] args) {
+        MigrationOptions options;
+        try {
+            options = MigrationOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+        if (options.help) {
+            printUsage();
+            return;
+        }
+
         System.out.println("===========================================");
         System.out.println("  J-Scheduler Data Migration Tool");
-        System.out.println("  JSON → MySQL Database Migration");
+        System.out.println("  JSON → SQL Database Migration");
         System.out.println("===========================================");
         System.out.println();
 
+        boolean success;
         try (Scanner scanner = new Scanner(System.in)) {
             // Confirm migration
-            System.out.print("Continue with migration? (yes/no): ");
-            String response = scanner.nextLine().trim().toLowerCase();
-            if (!response.equals("yes") && !response.equals("y")) {
+            if (!confirm(scanner, options, "Continue with migration?")) {
                 System.out.println("Migration cancelled.");
                 return;
             }
 
-            migrateData(scanner);
+            success = migrateData(options, scanner);
 
         } catch (Exception e) {
             System.err.println("\n✗ Migration failed: " + e.getMessage());
             e.printStackTrace();
+            success = false;
+        }
+
+        if (!success) {
+            System.exit(1);
         }
     }
 
-    private static void migrateData(Scanner scanner) {
-        try {
-            // Load from JSON
-            System.out.println("\n[1/4] Loading data from JSON file...");
-            DataRepository jsonRepo = new DataRepository();
-            List<Course> courses = jsonRepo.getAllCourses();
-            System.out.println("      ✓ Found " + courses.size() + " courses");
-
-            if (courses.isEmpty()) {
-                System.out.println("\n⚠ No data to migrate. Exiting.");
-                return;
-            }
+    private static void printUsage() {
+        System.out.println("Usage: DataMigrationTool [options]");
+        System.out.println("  --source <file>      Snapshot to import, .json or .bin (default " + DEFAULT_SOURCE + ")");
+        System.out.println("  --threads <n>        Writer threads, each on its own pooled connection (default " +
+            DEFAULT_THREADS + ")");
+        System.out.println("  --batch-size <n>     Courses per transaction (default " + DEFAULT_BATCH_SIZE + ")");
+        System.out.println("  --checkpoint <file>  Progress file used to resume (default <source>.checkpoint)");
+        System.out.println("  --yes                Do not prompt; overwrite existing data or resume a checkpoint");
+        System.out.println("  --restart            Ignore an existing checkpoint and start over");
+        System.out.println("  --help               Show this help");
+    }
 
-            // Count assignments
-            int totalAssignments = courses.stream()
-                .mapToInt(c -> c.getAssignments() != null ?
-                    c.getAssignments().size() : 0)
-                .sum();
-            System.out.println("      ✓ Found " + totalAssignments + " assignments");
-
-            // Initialize MySQL
-            System.out.println("\n[2/4] Connecting to MySQL database...");
-            MySQLCourseRepository mysqlRepo = new MySQLCourseRepository();
-            System.out.println("      ✓ Connected successfully");
-
-            // Check for existing data
-            List<Course> existingCourses = mysqlRepo.getAllCourses();
-            if (!existingCourses.isEmpty()) {
-                System.out.println("\n⚠ WARNING: Database already contains " +
-                    existingCourses.size() + " courses");
-                System.out.print("      Overwrite existing data? (yes/no): ");
-                String response = scanner.nextLine().trim().toLowerCase();
-                if (!response.equals("yes") && !response.equals("y")) {
+    private static boolean confirm(Scanner scanner, MigrationOptions options, String question) {
+        if (options.assumeYes) {
+            return true;
+        }
+        System.out.print(question + " (yes/no): ");
+        String response = scanner.hasNextLine() ? scanner.nextLine().trim().toLowerCase() : "";
+        return response.equals("yes") || response.equals("y");
+    }
+
+    /**
+     * @return true if every course was migrated
+     */
+    private static boolean migrateData(MigrationOptions options, Scanner scanner)
+            throws IOException, InterruptedException {
+        // Open source
+        System.out.println("\n[1/4] Opening " + options.source + "...");
+        if (!Files.exists(options.source)) {
+            System.err.println("      ✗ File not found");
+            return false;
+        }
+        System.out.printf("      ✓ %.1f MB to stream%n", Files.size(options.source) / (1024.0 * 1024.0));
+
+        // Connect to the database
+        System.out.println("\n[2/4] Connecting to database...");
+        JdbcCourseRepository databaseRepo = CourseRepositoryFactory.createDatabaseRepository();
+        System.out.println("      ✓ Connected successfully (" + databaseRepo.getClass().getSimpleName() + ")");
+
+        // Resume from a checkpoint, or start from an empty database
+        Checkpoint checkpoint = new Checkpoint(options.checkpoint);
+        Set<String> completedIds = checkpoint.load();
+        boolean resume = false;
+        if (!completedIds.isEmpty() && !options.restart) {
+            System.out.println("\n⚠ Checkpoint found: " + completedIds.size() + " courses already migrated");
+            resume = confirm(scanner, options, "      Resume previous migration?");
+        }
+
+        if (resume) {
+            System.out.println("\n[3/4] Resuming, skipping migrated courses");
+        } else {
+            checkpoint.delete();
+            completedIds.clear();
+
+            int existingCourses = databaseRepo.countCourses();
+            if (existingCourses > 0) {
+                System.out.println("\n⚠ WARNING: Database already contains " + existingCourses + " courses");
+                if (!confirm(scanner, options, "      Overwrite existing data?")) {
                     System.out.println("\nMigration cancelled.");
-                    return;
+                    return false;
                 }
 
                 System.out.println("\n[3/4] Deleting existing data...");
-                for (Course course : existingCourses) {
-                    mysqlRepo.deleteCourse(course.getId());
-                }
+                databaseRepo.deleteAllCourses();
                 System.out.println("      ✓ Existing data deleted");
             } else {
                 System.out.println("\n[3/4] Database is empty, ready for migration");
             }
+        }
+
+        // Migrate data
+        System.out.println("\n[4/4] Migrating courses with " + options.threads + " writer threads...");
+        Progress progress = new Progress();
+        BlockingQueue<List<Course>> queue = new ArrayBlockingQueue<>(options.threads * 2);
+        ExecutorService writers = Executors.newFixedThreadPool(options.threads);
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "migration-progress");
+            t.setDaemon(true);
+            return t;
+        });
+
+        ContentChecksum fileChecksum = new ContentChecksum();
+        boolean readComplete = false;
+        try {
+            checkpoint.open();
+            boolean replaceExisting = resume;
+            for (int i = 0; i < options.threads; i++) {
+                writers.execute(() -> writeBatches(queue, databaseRepo, replaceExisting, checkpoint, progress));
+            }
+            reporter.scheduleAtFixedRate(() -> System.out.println("      " + progress.describe()),
+                1, 1, TimeUnit.SECONDS);
+
+            List<Course> batch = new ArrayList<>(options.batchSize);
+            SnapshotCodec.forFile(options.source).read(options.source, course -> {
+                progress.coursesRead.incrementAndGet();
+                fileChecksum.add(course);
+                if (completedIds.contains(course.getId())) {
+                    progress.coursesSkipped.incrementAndGet();
+                    return;
+                }
+                batch.add(course);
+                if (batch.size() >= options.batchSize) {
+                    enqueue(queue, new ArrayList<>(batch));
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                enqueue(queue, batch);
+            }
+            readComplete = true;
+
+        } catch (IOException e) {
+            System.err.println("      ✗ Failed to read " + options.source + ": " + e.getMessage());
+        } finally {
+            for (int i = 0; i < options.threads; i++) {
+                queue.put(END_OF_INPUT);
+            }
+            writers.shutdown();
+            writers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            reporter.shutdownNow();
+            checkpoint.close();
+        }
+
+        double elapsedSeconds = (System.nanoTime() - progress.startNanos) / 1_000_000_000.0;
+        long migratedCourses = progress.coursesWritten.get();
+        long failedCourses = progress.coursesFailed.get();
+        long migratedAssignments = progress.assignmentsWritten.get();
+
+        // Summary
+        System.out.println("\n===========================================");
+        System.out.println("  Migration Complete");
+        System.out.println("===========================================");
+        System.out.println("Courses read:         " + progress.coursesRead.get());
+        System.out.println("Courses migrated:     " + migratedCourses +
+            (progress.coursesSkipped.get() > 0 ? " (+" + progress.coursesSkipped.get() + " from checkpoint)" : ""));
+        System.out.println("Courses failed:       " + failedCourses);
+        System.out.println("Assignments migrated: " + migratedAssignments);
+        System.out.printf("Elapsed:              %.2f s (%.0f assignment rows/sec)%n",
+            elapsedSeconds, elapsedSeconds > 0 ? migratedAssignments / elapsedSeconds : 0.0);
+
+        if (readComplete && failedCourses == 0) {
+            checkpoint.delete();
+
+            System.out.println("\nVerifying content checksums...");
+            if (!BulkTransfer.report("file", fileChecksum, "database", BulkTransfer.checksum(databaseRepo))) {
+                System.out.println("\n⚠ WARNING: The database does not match the source file.");
+                System.out.println("   Re-run with --restart to migrate from scratch.");
+                return false;
+            }
+
+            System.out.println("\n✓ SUCCESS: All data migrated successfully!");
+            System.out.println("\nNext steps:");
+            System.out.println("1. Test the application with the database backend");
+            System.out.println("2. Backup JSON file: cp data/scheduler-data.json data/scheduler-data.json.backup");
+            return true;
+        }
+
+        System.out.println("\n⚠ WARNING: Some data was not migrated.");
+        System.out.println("   Please review errors above, then run the tool again to resume from");
+        System.out.println("   " + options.checkpoint);
+        return false;
+    }
+
+    /**
+     * Hands a batch to the writers, blocking while they are behind.
+     */
+    private static void enqueue(BlockingQueue<List<Course>> queue, List<Course> batch) {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing courses", e);
+        }
+    }
+
+    private static void writeBatches(BlockingQueue<List<Course>> queue, JdbcCourseRepository databaseRepo,
+                                     boolean replaceExisting, Checkpoint checkpoint, Progress progress) {
+        while (true) {
+            List<Course> batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (batch == END_OF_INPUT) {
+                return;
+            }
+
+            int assignmentCount = batch.stream()
+                .mapToInt(c -> c.getAssignments() != null ? c.getAssignments().size() : 0)
+                .sum();
+            try {
+                // When resuming, a batch may have been committed without being checkpointed
+                if (replaceExisting) {
+                    databaseRepo.replaceCourses(batch);
+                } else {
+                    databaseRepo.importCourses(batch);
+                }
+                checkpoint.record(batch);
+                progress.coursesWritten.addAndGet(batch.size());
+                progress.assignmentsWritten.addAndGet(assignmentCount);
+
+            } catch (Exception e) {
+                progress.coursesFailed.addAndGet(batch.size());
+                System.err.println("      ✗ ERROR migrating batch starting at course " +
+                    batch.get(0).getCode() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Append-only list of committed course IDs, one per line.
+     */
+    private static final class Checkpoint {
+        private final Path path;
+        private BufferedWriter writer;
+
+        Checkpoint(Path path) {
+            this.path = path;
+        }
+
+        Set<String> load() throws IOException {
+            Set<String> ids = new HashSet<>();
+            if (Files.exists(path)) {
+                for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                    if (!line.isBlank()) {
+                        ids.add(line.trim());
+                    }
+                }
+            }
+            return ids;
+        }
 
-            // Migrate data
-            System.out.println("\n[4/4] Migrating courses to MySQL...");
-            int migratedCourses = 0;
-            int migratedAssignments = 0;
+        void open() throws IOException {
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
 
+        synchronized void record(List<Course> courses) throws IOException {
             for (Course course : courses) {
-                try {
-                    mysqlRepo.addCourse(course);
-                    migratedCourses++;
+                writer.write(course.getId());
+                writer.newLine();
+            }
+            writer.flush();
+        }
+
+        synchronized void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        }
 
-                    int assignmentCount = course.getAssignments() != null ?
-                        course.getAssignments().size() : 0;
-                    migratedAssignments += assignmentCount;
+        void delete() throws IOException {
+            Files.deleteIfExists(path);
+        }
+    }
 
-                    System.out.println("      ✓ " + course.getCode() +
-                        " - " + course.getName() + " (" + assignmentCount +
-                        " assignments)");
+    private static final class Progress {
+        final long startNanos = System.nanoTime();
+        final AtomicLong coursesRead = new AtomicLong();
+        final AtomicLong coursesWritten = new AtomicLong();
+        final AtomicLong coursesSkipped = new AtomicLong();
+        final AtomicLong coursesFailed = new AtomicLong();
+        final AtomicLong assignmentsWritten = new AtomicLong();
 
-                } catch (Exception e) {
-                    System.err.println("      ✗ ERROR migrating course " +
-                        course.getCode() + ": " + e.getMessage());
+        String describe() {
+            double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+            return String.format("%d courses migrated, %d failed, %d skipped | %d assignments | %.0f rows/sec",
+                coursesWritten.get(), coursesFailed.get(), coursesSkipped.get(), assignmentsWritten.get(),
+                seconds > 0 ? assignmentsWritten.get() / seconds : 0.0);
+        }
+    }
+
+    private static final class MigrationOptions {
+        Path source = DEFAULT_SOURCE;
+        Path checkpoint;
+        int threads = DEFAULT_THREADS;
+        int batchSize = DEFAULT_BATCH_SIZE;
+        boolean assumeYes;
+        boolean restart;
+        boolean help;
+
+        static MigrationOptions parse(String[] args) {
+            MigrationOptions options = new MigrationOptions();
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--source" -> options.source = Path.of(value(args, ++i));
+                    case "--checkpoint" -> options.checkpoint = Path.of(value(args, ++i));
+                    case "--threads" -> options.threads = positive(args, ++i);
+                    case "--batch-size" -> options.batchSize = positive(args, ++i);
+                    case "--yes", "-y" -> options.assumeYes = true;
+                    case "--restart" -> options.restart = true;
+                    case "--help", "-h" -> options.help = true;
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
                 }
             }
+            if (options.checkpoint == null) {
+                options.checkpoint = options.source.resolveSibling(options.source.getFileName() + ".checkpoint");
+            }
+            return options;
+        }
 
-            // Summary
-            System.out.println("\n===========================================");
-            System.out.println("  Migration Complete");
-            System.out.println("===========================================");
-            System.out.println("Courses migrated:     " + migratedCourses + "/" +
-                courses.size());
-            System.out.println("Assignments migrated: " + migratedAssignments + "/" +
-                totalAssignments);
-
-            if (migratedCourses == courses.size() &&
-                migratedAssignments == totalAssignments) {
-                System.out.println("\n✓ SUCCESS: All data migrated successfully!");
-                System.out.println("\nNext steps:");
-                System.out.println("1. Verify data in MySQL database");
-                System.out.println("2. Test the application with MySQL");
-                System.out.println("3. Backup JSON file: cp data/scheduler-data.json data/scheduler-data.json.backup");
-            } else {
-                System.out.println("\n⚠ WARNING: Some data may not have migrated.");
-                System.out.println("   Please review errors above.");
+        private static String value(String[] args, int index) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[index - 1]);
             }
+            return args[index];
+        }
 
-        } catch (Exception e) {
-            System.err.println("\n✗ Migration failed: " + e.getMessage());
-            e.printStackTrace();
+        private static int positive(String[] args, int index) {
+            String value = value(args, index);
+            try {
+                int parsed = Integer.parseInt(value);
+                if (parsed > 0) {
+                    return parsed;
+                }
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+            throw new IllegalArgumentException(args[index - 1] + " expects a positive number: " + value);
         }
     }
 }
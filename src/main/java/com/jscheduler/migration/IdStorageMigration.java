@@ -0,0 +1,163 @@
+package com.jscheduler.migration;
+
+import com.jscheduler.config.DatabaseConfig;
+import com.jscheduler.model.Assignment;
+import com.jscheduler.repository.CourseRepositoryFactory;
+import com.jscheduler.repository.JdbcCourseRepository;
+import com.jscheduler.repository.SnapshotCodec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Scanner;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Converts the course and assignment tables to the ID storage configured with
+ * {@code db.idStorage} (VARCHAR(36) text or BINARY(16)).
+ *
+ * The tables are exported to a checksummed snapshot file, dropped, recreated with the
+ * new ID column type and re-imported, and the database checksum is compared against the
+ * file. The snapshot file is kept as a backup; if the import fails, it can be loaded
+ * again with {@code BulkTransfer import}. IDs keep their values, so existing random IDs
+ * are not re-keyed; only IDs created afterwards are time-ordered. Row versions restart
+ * at 0, and the application should not be running during the migration.
+ *
+ * Usage: mvn compile exec:java -Dexec.mainClass="com.jscheduler.migration.IdStorageMigration"
+ *        -Dexec.args="--yes"
+ */
+public final class IdStorageMigration {
+
+    private static final Path DEFAULT_BACKUP = Path.of("data", "id-storage-backup.bin");
+
+    private IdStorageMigration() {
+    }
+
+    public static void main(String[] args) {
+        Path backup = DEFAULT_BACKUP;
+        boolean assumeYes = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--yes", "-y" -> assumeYes = true;
+                case "--backup" -> {
+                    if (i + 1 >= args.length) {
+                        System.err.println("Missing option value");
+                        printUsage();
+                        System.exit(2);
+                    }
+                    backup = Path.of(args[++i]);
+                }
+                case "--help" -> {
+                    printUsage();
+                    return;
+                }
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    printUsage();
+                    System.exit(2);
+                }
+            }
+        }
+
+        boolean success;
+        try (Scanner scanner = new Scanner(System.in)) {
+            success = migrate(DatabaseConfig.getInstance(), backup, assumeYes, scanner);
+        } catch (Exception e) {
+            System.err.println("✗ Migration failed: " + e.getMessage());
+            e.printStackTrace();
+            success = false;
+        }
+
+        if (!success) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return true if the tables use the configured ID storage and hold the same content
+     */
+    public static boolean migrate(DatabaseConfig dbConfig, Path backup, boolean assumeYes, Scanner scanner)
+            throws IOException {
+        JdbcCourseRepository source = CourseRepositoryFactory.createDatabaseRepository(dbConfig);
+        DatabaseConfig.IdStorage target = dbConfig.getIdStorage();
+        if (source.getIdStorage() == target) {
+            System.out.println("✓ IDs are already stored as " + target + "; nothing to do");
+            return true;
+        }
+        System.out.println("Converting ID storage from " + source.getIdStorage() + " to " + target);
+
+        // Export and verify the backup before anything is dropped
+        System.out.println("\n[1/4] Exporting to " + backup + "...");
+        if (backup.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(backup.toAbsolutePath().getParent());
+        }
+        ContentChecksum exported = BulkTransfer.exportTo(source, backup);
+        if (!BulkTransfer.report("database", exported, "backup", BulkTransfer.checksum(backup))) {
+            return false;
+        }
+
+        System.out.println("\n[2/4] Checking IDs...");
+        long invalid = countInvalidIds(backup);
+        if (invalid > 0) {
+            System.err.println("✗ " + invalid + " IDs are not lowercase UUIDs and cannot be stored as " + target);
+            return false;
+        }
+        System.out.println("      ✓ All IDs are lowercase UUIDs");
+
+        if (!assumeYes) {
+            System.out.print("\nDrop and recreate the courses and assignments tables? (yes/no): ");
+            String response = scanner.hasNextLine() ? scanner.nextLine().trim().toLowerCase() : "";
+            if (!response.equals("yes") && !response.equals("y")) {
+                System.out.println("Migration cancelled; the tables are unchanged.");
+                return true;
+            }
+        }
+
+        System.out.println("\n[3/4] Recreating tables...");
+        source.dropTables();
+        JdbcCourseRepository recreated = CourseRepositoryFactory.createDatabaseRepository(dbConfig);
+
+        System.out.println("\n[4/4] Importing " + backup + "...");
+        try {
+            BulkTransfer.importFrom(backup, recreated, BulkTransfer.DEFAULT_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            System.err.println("✗ Import failed; restore with BulkTransfer import " + backup);
+            throw e;
+        }
+        return BulkTransfer.report("backup", exported, "database", BulkTransfer.checksum(recreated));
+    }
+
+    private static long countInvalidIds(Path backup) throws IOException {
+        AtomicLong invalid = new AtomicLong();
+        SnapshotCodec.forFile(backup).read(backup, course -> {
+            if (!isUuid(course.getId())) {
+                invalid.incrementAndGet();
+            }
+            if (course.getAssignments() != null) {
+                for (Assignment assignment : course.getAssignments()) {
+                    if (!isUuid(assignment.getId())) {
+                        invalid.incrementAndGet();
+                    }
+                }
+            }
+        });
+        return invalid.get();
+    }
+
+    // Binary storage reads IDs back in lowercase, so other spellings would change
+    private static boolean isUuid(String id) {
+        try {
+            return id != null && UUID.fromString(id).toString().equals(id);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: IdStorageMigration [options]");
+        System.out.println("  Converts the ID columns to the db.idStorage type in database.properties");
+        System.out.println("  --backup <file>  Snapshot written before the tables are dropped (default " + DEFAULT_BACKUP + ")");
+        System.out.println("  --yes, -y        Do not ask before dropping the tables");
+    }
+}
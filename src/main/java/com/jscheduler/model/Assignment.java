@@ -1,11 +1,22 @@
 package com.jscheduler.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.jscheduler.util.IdGenerator;
+
 import java.time.LocalDateTime;
 import java.util.Objects;
-import java.util.UUID;
 
 public class Assignment {
 
+    // Bits of getDirtyFields(), one per field an update writes
+    public static final int FIELD_TITLE = 1;
+    public static final int FIELD_DESCRIPTION = 1 << 1;
+    public static final int FIELD_DUE_DATE = 1 << 2;
+    public static final int FIELD_SUBMISSION_DEADLINE = 1 << 3;
+    public static final int FIELD_STATUS = 1 << 4;
+    public static final int FIELD_NOTES = 1 << 5;
+    public static final int ALL_FIELDS = (1 << 6) - 1;
+
     private String id;
     private String courseId;
     private String title;
@@ -16,9 +27,15 @@ public class Assignment {
     private String notes;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private long version;
+    private int dirtyFields;
 
+    /**
+     * Creates an assignment with every field dirty, since none of it is stored yet.
+     */
     public Assignment() {
-        this.id = UUID.randomUUID().toString();
+        this.dirtyFields = ALL_FIELDS;
+        this.id = IdGenerator.newId();
         this.status = AssignmentStatus.NOT_STARTED;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
@@ -31,6 +48,24 @@ public class Assignment {
         this.submissionDeadline = dueDate;
     }
 
+    /**
+     * Copy constructor; timestamps are copied as they are, not refreshed.
+     */
+    public Assignment(Assignment other) {
+        this.id = other.id;
+        this.courseId = other.courseId;
+        this.title = other.title;
+        this.description = other.description;
+        this.dueDate = other.dueDate;
+        this.submissionDeadline = other.submissionDeadline;
+        this.status = other.status;
+        this.notes = other.notes;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.version = other.version;
+        this.dirtyFields = other.dirtyFields;
+    }
+
     public String getId() {
         return id;
     }
@@ -52,8 +87,8 @@ public class Assignment {
     }
 
     public void setTitle(String title) {
+        touch(FIELD_TITLE, this.title, title);
         this.title = title;
-        this.updatedAt = LocalDateTime.now();
     }
 
     public String getDescription() {
@@ -61,8 +96,8 @@ public class Assignment {
     }
 
     public void setDescription(String description) {
+        touch(FIELD_DESCRIPTION, this.description, description);
         this.description = description;
-        this.updatedAt = LocalDateTime.now();
     }
 
     public LocalDateTime getDueDate() {
@@ -70,8 +105,8 @@ public class Assignment {
     }
 
     public void setDueDate(LocalDateTime dueDate) {
+        touch(FIELD_DUE_DATE, this.dueDate, dueDate);
         this.dueDate = dueDate;
-        this.updatedAt = LocalDateTime.now();
     }
 
     public LocalDateTime getSubmissionDeadline() {
@@ -79,8 +114,8 @@ public class Assignment {
     }
 
     public void setSubmissionDeadline(LocalDateTime submissionDeadline) {
+        touch(FIELD_SUBMISSION_DEADLINE, this.submissionDeadline, submissionDeadline);
         this.submissionDeadline = submissionDeadline;
-        this.updatedAt = LocalDateTime.now();
     }
 
     public AssignmentStatus getStatus() {
@@ -88,8 +123,8 @@ public class Assignment {
     }
 
     public void setStatus(AssignmentStatus status) {
+        touch(FIELD_STATUS, this.status, status);
         this.status = status;
-        this.updatedAt = LocalDateTime.now();
     }
 
     public String getNotes() {
@@ -97,8 +132,8 @@ public class Assignment {
     }
 
     public void setNotes(String notes) {
+        touch(FIELD_NOTES, this.notes, notes);
         this.notes = notes;
-        this.updatedAt = LocalDateTime.now();
     }
 
     public LocalDateTime getCreatedAt() {
@@ -117,9 +152,69 @@ public class Assignment {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * Row version in the SQL database, used to detect concurrent updates. 0 until the
+     * assignment is first stored; stored rows start at 1.
+     * Not part of the content, so it is left out of JSON snapshots.
+     */
+    @JsonIgnore
+    public long getVersion() {
+        return version;
+    }
+
+    @JsonIgnore
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Fields changed through a setter since the assignment was last read from or written
+     * to the SQL database, as FIELD_* bits. Repositories use it to update only those columns.
+     */
+    @JsonIgnore
+    public int getDirtyFields() {
+        return dirtyFields;
+    }
+
+    @JsonIgnore
+    public boolean isDirty() {
+        return dirtyFields != 0;
+    }
+
+    /**
+     * True for an assignment that was never stored: still at version 0 and with unsaved
+     * fields. A stored assignment that is missing from storage was deleted instead.
+     */
+    @JsonIgnore
+    public boolean isNew() {
+        return version == 0 && dirtyFields != 0;
+    }
+
+    /**
+     * Marks every field as matching the stored row.
+     */
+    public void markClean() {
+        this.dirtyFields = 0;
+    }
+
+    // Records a change and touches updatedAt, unless the value stays the same
+    private void touch(int field, Object oldValue, Object newValue) {
+        if (!Objects.equals(oldValue, newValue)) {
+            this.dirtyFields |= field;
+            this.updatedAt = LocalDateTime.now();
+        }
+    }
+
     public boolean isOverdue() {
+        return isOverdue(LocalDateTime.now());
+    }
+
+    /**
+     * @param now Time to evaluate at, so several checks can share one "now"
+     */
+    public boolean isOverdue(LocalDateTime now) {
         return dueDate != null &&
-               LocalDateTime.now().isAfter(dueDate) &&
+               now.isAfter(dueDate) &&
                status != AssignmentStatus.SUBMITTED;
     }
 
@@ -0,0 +1,32 @@
+package com.jscheduler.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight read-only view of an assignment for list screens.
+ * Carries only the columns shown in tables, leaving out the description and
+ * notes text; the full {@link Assignment} is loaded when one is opened.
+ */
+public record AssignmentSummary(String id, String courseId, String title,
+                                LocalDateTime dueDate, AssignmentStatus status) {
+
+    public static AssignmentSummary of(Assignment assignment) {
+        return new AssignmentSummary(assignment.getId(), assignment.getCourseId(),
+                assignment.getTitle(), assignment.getDueDate(), assignment.getStatus());
+    }
+
+    public boolean isOverdue() {
+        return isOverdue(LocalDateTime.now());
+    }
+
+    public boolean isOverdue(LocalDateTime now) {
+        return dueDate != null &&
+               now.isAfter(dueDate) &&
+               status != AssignmentStatus.SUBMITTED;
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+}
@@ -1,12 +1,22 @@
 package com.jscheduler.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.jscheduler.util.IdGenerator;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
 
 public class Course {
 
+    // Bits of getDirtyFields(), one per field an update writes
+    public static final int FIELD_NAME = 1;
+    public static final int FIELD_CODE = 1 << 1;
+    public static final int FIELD_DESCRIPTION = 1 << 2;
+    public static final int FIELD_PROFESSOR = 1 << 3;
+    public static final int FIELD_SEMESTER = 1 << 4;
+    public static final int ALL_FIELDS = (1 << 5) - 1;
+
     private String id;
     private String name;
     private String code;
@@ -14,9 +24,15 @@ public class Course {
     private String professor;
     private Semester semester;
     private List<Assignment> assignments;
+    private long version;
+    private int dirtyFields;
 
+    /**
+     * Creates a course with every field dirty, since none of it is stored yet.
+     */
     public Course() {
-        this.id = UUID.randomUUID().toString();
+        this.dirtyFields = ALL_FIELDS;
+        this.id = IdGenerator.newId();
         this.assignments = new ArrayList<>();
     }
 
@@ -28,6 +44,26 @@ public class Course {
         this.semester = semester;
     }
 
+    /**
+     * Copy constructor; the assignment list and its assignments are copied as well.
+     */
+    public Course(Course other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.code = other.code;
+        this.description = other.description;
+        this.professor = other.professor;
+        this.semester = other.semester;
+        this.version = other.version;
+        this.dirtyFields = other.dirtyFields;
+        if (other.assignments != null) {
+            this.assignments = new ArrayList<>(other.assignments.size());
+            for (Assignment assignment : other.assignments) {
+                this.assignments.add(new Assignment(assignment));
+            }
+        }
+    }
+
     public String getId() {
         return id;
     }
@@ -41,6 +77,7 @@ public class Course {
     }
 
     public void setName(String name) {
+        touch(FIELD_NAME, this.name, name);
         this.name = name;
     }
 
@@ -49,6 +86,7 @@ public class Course {
     }
 
     public void setCode(String code) {
+        touch(FIELD_CODE, this.code, code);
         this.code = code;
     }
 
@@ -57,6 +95,7 @@ public class Course {
     }
 
     public void setDescription(String description) {
+        touch(FIELD_DESCRIPTION, this.description, description);
         this.description = description;
     }
 
@@ -65,6 +104,7 @@ public class Course {
     }
 
     public void setProfessor(String professor) {
+        touch(FIELD_PROFESSOR, this.professor, professor);
         this.professor = professor;
     }
 
@@ -73,6 +113,7 @@ public class Course {
     }
 
     public void setSemester(Semester semester) {
+        touch(FIELD_SEMESTER, this.semester, semester);
         this.semester = semester;
     }
 
@@ -84,6 +125,48 @@ public class Course {
         this.assignments = assignments;
     }
 
+    /**
+     * Row version in the SQL database, used to detect concurrent updates. 0 until the
+     * course is first stored; stored rows start at 1.
+     * Not part of the content, so it is left out of JSON snapshots.
+     */
+    @JsonIgnore
+    public long getVersion() {
+        return version;
+    }
+
+    @JsonIgnore
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Fields of the course row changed through a setter since the course was last read
+     * from or written to the SQL database, as FIELD_* bits. Assignments track their own.
+     */
+    @JsonIgnore
+    public int getDirtyFields() {
+        return dirtyFields;
+    }
+
+    @JsonIgnore
+    public boolean isDirty() {
+        return dirtyFields != 0;
+    }
+
+    /**
+     * Marks every field as matching the stored row.
+     */
+    public void markClean() {
+        this.dirtyFields = 0;
+    }
+
+    private void touch(int field, Object oldValue, Object newValue) {
+        if (!Objects.equals(oldValue, newValue)) {
+            this.dirtyFields |= field;
+        }
+    }
+
     public void addAssignment(Assignment assignment) {
         if (this.assignments == null) {
             this.assignments = new ArrayList<>();
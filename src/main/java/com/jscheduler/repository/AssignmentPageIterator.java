@@ -0,0 +1,96 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.model.Assignment;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over the results of an assignment query one page at a time using
+ * keyset pagination on (due date, ID). Each page is a separate bounded query that
+ * starts after the last row of the previous page, so no connection or cursor is
+ * held open between pages and only one page is in memory at a time.
+ */
+public class AssignmentPageIterator implements Iterator<List<Assignment>> {
+
+    private final AssignmentQueryRepository repository;
+    private final AssignmentQuery template;
+    private final int pageSize;
+
+    private long remaining;
+    private Assignment lastRow;
+    private List<Assignment> nextPage;
+    private boolean exhausted;
+
+    public AssignmentPageIterator(AssignmentQueryRepository repository,
+                                  AssignmentQuery query, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        }
+        this.repository = repository;
+        this.template = query.copy().setSortOrder(AssignmentQuery.SortOrder.DUE_DATE);
+        this.pageSize = pageSize;
+        this.remaining = query.hasLimit() ? query.getLimit() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Flattens the pages of a query into a lazily fetched stream of assignments.
+     */
+    public static Stream<Assignment> stream(AssignmentQueryRepository repository,
+                                            AssignmentQuery query, int pageSize) {
+        Iterator<List<Assignment>> pages = new AssignmentPageIterator(repository, query, pageSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                        pages, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .flatMap(List::stream);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextPage == null && !exhausted) {
+            fetchNextPage();
+        }
+        return nextPage != null;
+    }
+
+    @Override
+    public List<Assignment> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<Assignment> page = nextPage;
+        nextPage = null;
+        return page;
+    }
+
+    private void fetchNextPage() {
+        if (remaining <= 0) {
+            exhausted = true;
+            return;
+        }
+
+        int size = (int) Math.min(pageSize, remaining);
+        AssignmentQuery pageQuery = template.copy().setLimit(size);
+        if (lastRow != null) {
+            pageQuery.setStartAfter(lastRow.getDueDate(), lastRow.getId());
+        }
+
+        List<Assignment> page = repository.findAssignments(pageQuery);
+        if (page.isEmpty()) {
+            exhausted = true;
+            return;
+        }
+
+        // A short page is the last one; skip the extra empty round trip
+        if (page.size() < size) {
+            exhausted = true;
+        }
+        remaining -= page.size();
+        lastRow = page.get(page.size() - 1);
+        nextPage = page;
+    }
+}
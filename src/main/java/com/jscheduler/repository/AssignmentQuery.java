@@ -0,0 +1,280 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.AssignmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Backend-neutral description of an assignment lookup: filters, sort order and limit.
+ * SQL repositories translate it into WHERE/ORDER BY/LIMIT clauses, in-memory
+ * repositories evaluate it with {@link #apply(Stream)}.
+ */
+public class AssignmentQuery {
+
+    public enum SortOrder {
+        NONE,
+        DUE_DATE
+    }
+
+    /**
+     * Due date ascending (no due date last), ties broken by ID for a stable order.
+     */
+    public static final Comparator<Assignment> DUE_DATE_ORDER =
+            Comparator.comparing(Assignment::getDueDate,
+                            Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+                    .thenComparing(Assignment::getId);
+
+    private String courseId;
+    private AssignmentStatus status;
+    private AssignmentStatus excludedStatus;
+    private LocalDateTime dueFrom;
+    private LocalDateTime dueTo;
+    private LocalDateTime dueAfter;
+    private LocalDateTime dueBefore;
+    private SortOrder sortOrder = SortOrder.NONE;
+    private int limit;
+    private boolean keysetSet;
+    private LocalDateTime afterDueDate;
+    private String afterId;
+
+    public AssignmentQuery() {
+    }
+
+    public static AssignmentQuery byCourse(String courseId) {
+        return new AssignmentQuery()
+                .setCourseId(courseId)
+                .setSortOrder(SortOrder.DUE_DATE);
+    }
+
+    public static AssignmentQuery byStatus(AssignmentStatus status) {
+        return new AssignmentQuery()
+                .setStatus(status)
+                .setSortOrder(SortOrder.DUE_DATE);
+    }
+
+    /**
+     * Unsubmitted assignments due after {@code now} and before {@code daysAhead} days from it.
+     */
+    public static AssignmentQuery upcoming(LocalDateTime now, int daysAhead) {
+        return new AssignmentQuery()
+                .setDueAfter(now)
+                .setDueBefore(now.plusDays(daysAhead))
+                .setExcludedStatus(AssignmentStatus.SUBMITTED)
+                .setSortOrder(SortOrder.DUE_DATE);
+    }
+
+    /**
+     * Unsubmitted assignments whose due date is before {@code now}.
+     */
+    public static AssignmentQuery overdue(LocalDateTime now) {
+        return new AssignmentQuery()
+                .setDueBefore(now)
+                .setExcludedStatus(AssignmentStatus.SUBMITTED)
+                .setSortOrder(SortOrder.DUE_DATE);
+    }
+
+    /**
+     * Assignments due within [start, end], inclusive.
+     */
+    public static AssignmentQuery dueBetween(LocalDateTime start, LocalDateTime end) {
+        return new AssignmentQuery()
+                .setDueBetween(start, end)
+                .setSortOrder(SortOrder.DUE_DATE);
+    }
+
+    /**
+     * Returns an independent copy of this query, e.g. as a template for the next page.
+     */
+    public AssignmentQuery copy() {
+        AssignmentQuery copy = new AssignmentQuery();
+        copy.courseId = courseId;
+        copy.status = status;
+        copy.excludedStatus = excludedStatus;
+        copy.dueFrom = dueFrom;
+        copy.dueTo = dueTo;
+        copy.dueAfter = dueAfter;
+        copy.dueBefore = dueBefore;
+        copy.sortOrder = sortOrder;
+        copy.limit = limit;
+        copy.keysetSet = keysetSet;
+        copy.afterDueDate = afterDueDate;
+        copy.afterId = afterId;
+        return copy;
+    }
+
+    public AssignmentQuery setCourseId(String courseId) {
+        this.courseId = courseId;
+        return this;
+    }
+
+    public AssignmentQuery setStatus(AssignmentStatus status) {
+        this.status = status;
+        return this;
+    }
+
+    public AssignmentQuery setExcludedStatus(AssignmentStatus excludedStatus) {
+        this.excludedStatus = excludedStatus;
+        return this;
+    }
+
+    /**
+     * Restricts to due dates within [from, to]; either bound may be null.
+     */
+    public AssignmentQuery setDueBetween(LocalDateTime from, LocalDateTime to) {
+        this.dueFrom = from;
+        this.dueTo = to;
+        return this;
+    }
+
+    /**
+     * Restricts to due dates strictly after the given time.
+     */
+    public AssignmentQuery setDueAfter(LocalDateTime dueAfter) {
+        this.dueAfter = dueAfter;
+        return this;
+    }
+
+    /**
+     * Restricts to due dates strictly before the given time.
+     */
+    public AssignmentQuery setDueBefore(LocalDateTime dueBefore) {
+        this.dueBefore = dueBefore;
+        return this;
+    }
+
+    public AssignmentQuery setSortOrder(SortOrder sortOrder) {
+        this.sortOrder = sortOrder != null ? sortOrder : SortOrder.NONE;
+        return this;
+    }
+
+    /**
+     * Caps the number of results; zero or less means unlimited.
+     */
+    public AssignmentQuery setLimit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Keyset cursor: restricts to assignments that sort after the given
+     * (due date, ID) position in {@link SortOrder#DUE_DATE} order.
+     */
+    public AssignmentQuery setStartAfter(LocalDateTime dueDate, String id) {
+        this.keysetSet = true;
+        this.afterDueDate = dueDate;
+        this.afterId = id;
+        return this;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public AssignmentStatus getStatus() {
+        return status;
+    }
+
+    public AssignmentStatus getExcludedStatus() {
+        return excludedStatus;
+    }
+
+    public LocalDateTime getDueFrom() {
+        return dueFrom;
+    }
+
+    public LocalDateTime getDueTo() {
+        return dueTo;
+    }
+
+    public LocalDateTime getDueAfter() {
+        return dueAfter;
+    }
+
+    public LocalDateTime getDueBefore() {
+        return dueBefore;
+    }
+
+    public SortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean hasKeyset() {
+        return keysetSet;
+    }
+
+    public LocalDateTime getAfterDueDate() {
+        return afterDueDate;
+    }
+
+    public String getAfterId() {
+        return afterId;
+    }
+
+    public boolean hasLimit() {
+        return limit > 0;
+    }
+
+    public boolean hasDueDateBounds() {
+        return dueFrom != null || dueTo != null || dueAfter != null || dueBefore != null;
+    }
+
+    public boolean matches(Assignment assignment) {
+        if (courseId != null && !courseId.equals(assignment.getCourseId())) {
+            return false;
+        }
+        if (status != null && assignment.getStatus() != status) {
+            return false;
+        }
+        if (excludedStatus != null && assignment.getStatus() == excludedStatus) {
+            return false;
+        }
+        if (keysetSet && !isAfterKeyset(assignment)) {
+            return false;
+        }
+        if (!hasDueDateBounds()) {
+            return true;
+        }
+
+        LocalDateTime dueDate = assignment.getDueDate();
+        return dueDate != null &&
+               (dueFrom == null || !dueDate.isBefore(dueFrom)) &&
+               (dueTo == null || !dueDate.isAfter(dueTo)) &&
+               (dueAfter == null || dueDate.isAfter(dueAfter)) &&
+               (dueBefore == null || dueDate.isBefore(dueBefore));
+    }
+
+    private boolean isAfterKeyset(Assignment assignment) {
+        LocalDateTime dueDate = assignment.getDueDate();
+        if (afterDueDate == null) {
+            // Cursor is already in the trailing "no due date" section
+            return dueDate == null && assignment.getId().compareTo(afterId) > 0;
+        }
+        if (dueDate == null || dueDate.isAfter(afterDueDate)) {
+            return true;
+        }
+        return dueDate.isEqual(afterDueDate) && assignment.getId().compareTo(afterId) > 0;
+    }
+
+    /**
+     * Evaluates this query in memory against a stream of assignments.
+     */
+    public List<Assignment> apply(Stream<Assignment> assignments) {
+        Stream<Assignment> stream = assignments.filter(this::matches);
+        if (sortOrder == SortOrder.DUE_DATE) {
+            stream = stream.sorted(DUE_DATE_ORDER);
+        }
+        if (hasLimit()) {
+            stream = stream.limit(limit);
+        }
+        return stream.collect(Collectors.toList());
+    }
+}
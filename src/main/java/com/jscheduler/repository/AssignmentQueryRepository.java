@@ -0,0 +1,50 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.AssignmentSummary;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Repository capability for filtered, sorted and limited assignment lookups.
+ * Lets backends answer date, status and overdue queries without the caller
+ * loading every course first.
+ */
+public interface AssignmentQueryRepository {
+
+    int DEFAULT_PAGE_SIZE = 500;
+
+    /**
+     * Finds the assignments matching a query.
+     * @param query Filters, sort order and limit to apply
+     * @return Matching assignments in the requested order
+     */
+    List<Assignment> findAssignments(AssignmentQuery query);
+
+    /**
+     * Finds lightweight summaries of the assignments matching a query.
+     * Database implementations should select only the summary columns;
+     * the default implementation projects full assignments.
+     * @param query Filters, sort order and limit to apply
+     * @return Matching assignment summaries in the requested order
+     */
+    default List<AssignmentSummary> findAssignmentSummaries(AssignmentQuery query) {
+        return findAssignments(query).stream()
+                .map(AssignmentSummary::of)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Streams the assignments matching a query in due date order.
+     * The default implementation fetches keyset-paginated pages lazily,
+     * so at most one page is held in memory at a time.
+     * @param query Filters and optional overall limit to apply
+     * @param pageSize Number of rows fetched per page
+     * @return Lazily populated stream of matching assignments
+     */
+    default Stream<Assignment> streamAssignments(AssignmentQuery query, int pageSize) {
+        return AssignmentPageIterator.stream(this, query, pageSize);
+    }
+}
@@ -0,0 +1,426 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.AssignmentStatus;
+import com.jscheduler.model.Course;
+import com.jscheduler.model.Semester;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary snapshot of the course model, written through a FileChannel
+ * and read back from a memory-mapped file.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   header      magic "JSCB" (int), format version (int)
+ *   blocks      course count (0 ends the list), then the block's string dictionary
+ *               (string count, then (UTF-8 length, bytes) per string), then one record
+ *               per course, each followed by its assignments
+ *   footer      course count (int), assignment count (int), CRC32 of everything before it (long)
+ * </pre>
+ * Strings are stored once per block and referenced by index + 1 (0 is null); counts,
+ * string references and row versions are unsigned varints. A block holds at most {@value #BLOCK_SIZE} courses,
+ * so reading and writing need memory for one block, not the whole file.
+ * Timestamps are epoch seconds in UTC ({@link Long#MIN_VALUE} for null), so sub-second
+ * precision is dropped. Enums are stored by ordinal (0xFF for null), so reordering
+ * AssignmentStatus or Semester.Season requires a new format version.
+ *
+ * Version 1 files (one dictionary after all courses) and version 2 files (no row versions)
+ * are still readable; their courses and assignments come back at version 0.
+ */
+public class BinarySnapshotCodec implements SnapshotCodec {
+
+    static final int MAGIC = 0x4A534342;
+    static final int FORMAT_VERSION = 3;
+
+    private static final int BLOCK_SIZE = 256;
+    private static final int HEADER_SIZE = 8;
+    private static final int FOOTER_SIZE = 16;
+    private static final int V1_FOOTER_SIZE = 24;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+    private static final int NULL_ORDINAL = 0xFF;
+
+    private static final AssignmentStatus[] STATUSES = AssignmentStatus.values();
+    private static final Semester.Season[] SEASONS = Semester.Season.values();
+
+    public BinarySnapshotCodec() {
+    }
+
+    @Override
+    public void read(Path file, Consumer<Course> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + FOOTER_SIZE) {
+                throw new IOException("Snapshot is truncated: " + file);
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is too large to map: " + file);
+            }
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (mapped.getInt(0) != MAGIC) {
+                throw new IOException("Not a binary snapshot: " + file);
+            }
+            int version = mapped.getInt(4);
+            if (version < 1 || version > FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+
+            int crcOffset = (int) size - Long.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(mapped.duplicate().position(0).limit(crcOffset));
+            if (crc.getValue() != mapped.getLong(crcOffset)) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+
+            if (version == 1) {
+                readVersion1(mapped, file, consumer);
+                return;
+            }
+
+            int footerOffset = (int) size - FOOTER_SIZE;
+            int expectedCourses = mapped.getInt(footerOffset);
+            ByteBuffer body = mapped.duplicate().position(HEADER_SIZE).limit(footerOffset);
+            int courseCount = 0;
+            for (int blockSize = getVarInt(body); blockSize > 0; blockSize = getVarInt(body)) {
+                String[] dictionary = readDictionary(body);
+                for (int i = 0; i < blockSize; i++) {
+                    consumer.accept(readCourse(body, dictionary, version));
+                }
+                courseCount += blockSize;
+            }
+            if (courseCount != expectedCourses) {
+                throw new IOException("Snapshot holds " + courseCount + " courses, footer says "
+                    + expectedCourses + ": " + file);
+            }
+        } catch (RuntimeException e) {
+            // Buffer under/overflow or a bad index means the contents do not match the checksum's promise
+            throw new IOException("Corrupt snapshot " + file + ": " + e, e);
+        }
+    }
+
+    private void readVersion1(MappedByteBuffer mapped, Path file, Consumer<Course> consumer) throws IOException {
+        int footerOffset = mapped.limit() - V1_FOOTER_SIZE;
+        long dictionaryOffset = mapped.getLong(footerOffset);
+        int courseCount = mapped.getInt(footerOffset + 8);
+        if (dictionaryOffset < HEADER_SIZE || dictionaryOffset > footerOffset) {
+            throw new IOException("Snapshot dictionary offset is invalid: " + file);
+        }
+
+        String[] dictionary = readDictionary(
+            mapped.duplicate().position((int) dictionaryOffset).limit(footerOffset));
+        ByteBuffer body = mapped.duplicate().position(HEADER_SIZE).limit((int) dictionaryOffset);
+        for (int i = 0; i < courseCount; i++) {
+            consumer.accept(readCourse(body, dictionary, 1));
+        }
+    }
+
+    @Override
+    public void write(Path file, Iterable<Course> courses) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.putInt(MAGIC);
+            out.putInt(FORMAT_VERSION);
+
+            List<Course> block = new ArrayList<>(BLOCK_SIZE);
+            int courseCount = 0;
+            int assignmentCount = 0;
+            for (Course course : courses) {
+                block.add(course);
+                if (block.size() == BLOCK_SIZE) {
+                    assignmentCount += writeBlock(out, block);
+                    courseCount += block.size();
+                    block.clear();
+                }
+            }
+            if (!block.isEmpty()) {
+                assignmentCount += writeBlock(out, block);
+                courseCount += block.size();
+            }
+            out.putVarInt(0);
+
+            out.putInt(courseCount);
+            out.putInt(assignmentCount);
+            out.flush();
+
+            ByteBuffer checksum = ByteBuffer.allocate(Long.BYTES).putLong(0, out.crc.getValue());
+            while (checksum.hasRemaining()) {
+                channel.write(checksum);
+            }
+        }
+    }
+
+    // ===== Encoding =====
+
+    private int writeBlock(Output out, List<Course> block) throws IOException {
+        Map<String, Integer> dictionaryIndex = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        for (Course course : block) {
+            collectStrings(course, dictionaryIndex, dictionary);
+        }
+
+        out.putVarInt(block.size());
+        out.putVarInt(dictionary.size());
+        for (String value : dictionary) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.putVarInt(bytes.length);
+            out.putBytes(bytes);
+        }
+
+        int assignmentCount = 0;
+        for (Course course : block) {
+            assignmentCount += writeCourse(out, course, dictionaryIndex);
+        }
+        return assignmentCount;
+    }
+
+    private void collectStrings(Course course, Map<String, Integer> dictionaryIndex, List<String> dictionary) {
+        List<String> values = new ArrayList<>();
+        values.add(course.getId());
+        values.add(course.getName());
+        values.add(course.getCode());
+        values.add(course.getDescription());
+        values.add(course.getProfessor());
+        if (course.getAssignments() != null) {
+            for (Assignment assignment : course.getAssignments()) {
+                values.add(assignment.getId());
+                values.add(assignment.getTitle());
+                values.add(assignment.getDescription());
+                values.add(assignment.getNotes());
+            }
+        }
+        for (String value : values) {
+            if (value != null && !dictionaryIndex.containsKey(value)) {
+                dictionaryIndex.put(value, dictionary.size());
+                dictionary.add(value);
+            }
+        }
+    }
+
+    private int writeCourse(Output out, Course course, Map<String, Integer> dictionaryIndex) throws IOException {
+        writeString(out, course.getId(), dictionaryIndex);
+        writeString(out, course.getName(), dictionaryIndex);
+        writeString(out, course.getCode(), dictionaryIndex);
+        writeString(out, course.getDescription(), dictionaryIndex);
+        writeString(out, course.getProfessor(), dictionaryIndex);
+
+        Semester semester = course.getSemester();
+        out.putByte(semester != null ? 1 : 0);
+        if (semester != null) {
+            out.putByte(semester.getSeason() != null ? semester.getSeason().ordinal() : NULL_ORDINAL);
+            out.putVarInt(semester.getYear());
+        }
+        out.putVarLong(course.getVersion());
+
+        List<Assignment> assignments = course.getAssignments() != null ? course.getAssignments() : List.of();
+        out.putVarInt(assignments.size());
+        for (Assignment assignment : assignments) {
+            writeString(out, assignment.getId(), dictionaryIndex);
+            writeString(out, assignment.getTitle(), dictionaryIndex);
+            writeString(out, assignment.getDescription(), dictionaryIndex);
+            writeString(out, assignment.getNotes(), dictionaryIndex);
+            out.putByte(assignment.getStatus() != null ? assignment.getStatus().ordinal() : NULL_ORDINAL);
+            writeTimestamp(out, assignment.getDueDate());
+            writeTimestamp(out, assignment.getSubmissionDeadline());
+            writeTimestamp(out, assignment.getCreatedAt());
+            writeTimestamp(out, assignment.getUpdatedAt());
+            out.putVarLong(assignment.getVersion());
+        }
+        return assignments.size();
+    }
+
+    private void writeString(Output out, String value, Map<String, Integer> dictionaryIndex) throws IOException {
+        out.putVarInt(value == null ? 0 : dictionaryIndex.get(value) + 1);
+    }
+
+    private void writeTimestamp(Output out, LocalDateTime value) throws IOException {
+        out.putLong(value != null ? value.toEpochSecond(ZoneOffset.UTC) : NULL_TIMESTAMP);
+    }
+
+    // ===== Decoding =====
+
+    private String[] readDictionary(ByteBuffer in) {
+        String[] dictionary = new String[getVarInt(in)];
+        for (int i = 0; i < dictionary.length; i++) {
+            byte[] bytes = new byte[getVarInt(in)];
+            in.get(bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return dictionary;
+    }
+
+    private Course readCourse(ByteBuffer in, String[] dictionary, int formatVersion) {
+        Course course = new Course();
+        course.setId(readString(in, dictionary));
+        course.setName(readString(in, dictionary));
+        course.setCode(readString(in, dictionary));
+        course.setDescription(readString(in, dictionary));
+        course.setProfessor(readString(in, dictionary));
+
+        if (in.get() != 0) {
+            int season = Byte.toUnsignedInt(in.get());
+            Semester semester = new Semester();
+            semester.setSeason(season != NULL_ORDINAL ? SEASONS[season] : null);
+            semester.setYear(getVarInt(in));
+            course.setSemester(semester);
+        }
+        if (formatVersion >= 3) {
+            course.setVersion(getVarLong(in));
+        }
+
+        int assignmentCount = getVarInt(in);
+        List<Assignment> assignments = new ArrayList<>(assignmentCount);
+        for (int i = 0; i < assignmentCount; i++) {
+            Assignment assignment = new Assignment();
+            assignment.setId(readString(in, dictionary));
+            assignment.setCourseId(course.getId());
+            assignment.setTitle(readString(in, dictionary));
+            assignment.setDescription(readString(in, dictionary));
+            assignment.setNotes(readString(in, dictionary));
+            int status = Byte.toUnsignedInt(in.get());
+            assignment.setStatus(status != NULL_ORDINAL ? STATUSES[status] : null);
+            assignment.setDueDate(readTimestamp(in));
+            assignment.setSubmissionDeadline(readTimestamp(in));
+            assignment.setCreatedAt(readTimestamp(in));
+            // Set last, since the other setters touch updatedAt
+            assignment.setUpdatedAt(readTimestamp(in));
+            if (formatVersion >= 3) {
+                assignment.setVersion(getVarLong(in));
+            }
+            // Decoded rows match what was stored, like rows read from the database
+            assignment.markClean();
+            assignments.add(assignment);
+        }
+        course.setAssignments(assignments);
+        course.markClean();
+        return course;
+    }
+
+    private String readString(ByteBuffer in, String[] dictionary) {
+        int reference = getVarInt(in);
+        return reference == 0 ? null : dictionary[reference - 1];
+    }
+
+    private LocalDateTime readTimestamp(ByteBuffer in) {
+        long epochSecond = in.getLong();
+        return epochSecond == NULL_TIMESTAMP ? null :
+                LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    private static int getVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    private static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    /**
+     * Buffered channel writer that keeps a running CRC.
+     */
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final CRC32 crc = new CRC32();
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putByte(int value) throws IOException {
+            ensure(1);
+            buffer.put((byte) value);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putVarInt(int value) throws IOException {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void putVarLong(long value) throws IOException {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+}
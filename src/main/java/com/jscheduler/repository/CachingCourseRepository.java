@@ -0,0 +1,546 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.AssignmentSummary;
+import com.jscheduler.model.Course;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * CourseRepository decorator that keeps courses and their assignments in memory.
+ * Entries are indexed by course ID (and assignment ID), bounded by a weight of
+ * one unit per course plus one per assignment, and evicted least-recently-used first.
+ * Writes made through this decorator update or invalidate only the affected course;
+ * changes made by other clients are picked up once an entry is older than the TTL.
+ *
+ * Cached Course and Assignment instances are shared between callers, so they should
+ * only be modified as part of a write back through the repository.
+ *
+ * With a warm-start file, the full course list is written as a binary snapshot on
+ * close and read back on construction, so the first screen can be shown without
+ * waiting for the database. Only the full course list is served from the snapshot;
+ * single courses and assignments are revalidated on first read, and callers should
+ * {@link #refreshAll()} once the first screen is up (see {@link #isWarmStarted()}).
+ *
+ * If the underlying repository has a change feed, change sets fetched through
+ * {@link #getChangesSince} are applied to the cache before being returned.
+ */
+public class CachingCourseRepository implements CourseRepository, ChangeFeedRepository {
+
+    public static final long DEFAULT_MAX_WEIGHT = 10_000;
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+    private final CourseRepository delegate;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final Path warmStartFile;
+    private final BinarySnapshotCodec snapshotCodec = new BinarySnapshotCodec();
+
+    // Access-ordered, so iteration starts at the least recently used course
+    private final LinkedHashMap<String, CacheEntry> courses = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> assignmentCourseIds = new HashMap<>();
+    private long currentWeight;
+
+    // Ordered IDs of the last full load; null when the cache no longer holds every course
+    private List<String> allCourseIds;
+    private long allCoursesLoadedAt;
+    // True while the full list still comes from the warm-start snapshot
+    private boolean warmStarted;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public CachingCourseRepository(CourseRepository delegate) {
+        this(delegate, DEFAULT_MAX_WEIGHT, DEFAULT_TTL);
+    }
+
+    public CachingCourseRepository(CourseRepository delegate, long maxWeight, Duration ttl) {
+        this(delegate, maxWeight, ttl, null);
+    }
+
+    public CachingCourseRepository(CourseRepository delegate, Path warmStartFile) {
+        this(delegate, DEFAULT_MAX_WEIGHT, DEFAULT_TTL, warmStartFile);
+    }
+
+    /**
+     * @param warmStartFile Binary snapshot used to prefill the cache, or null to start empty
+     */
+    public CachingCourseRepository(CourseRepository delegate, long maxWeight, Duration ttl,
+                                   Path warmStartFile) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("maxWeight must be positive: " + maxWeight);
+        }
+        this.delegate = delegate;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttl.toNanos();
+        this.warmStartFile = warmStartFile;
+        loadWarmStartSnapshot();
+    }
+
+    @Override
+    public synchronized List<Course> getAllCourses() {
+        if (allCourseIds != null && isFresh(allCoursesLoadedAt)) {
+            List<Course> cached = new ArrayList<>(allCourseIds.size());
+            for (String id : allCourseIds) {
+                CacheEntry entry = courses.get(id);
+                if (entry == null) {
+                    cached = null;
+                    break;
+                }
+                cached.add(entry.course());
+            }
+            if (cached != null) {
+                hitCount++;
+                return cached;
+            }
+        }
+
+        missCount++;
+        List<Course> loaded = delegate.getAllCourses();
+        putAll(loaded, System.nanoTime());
+        return new ArrayList<>(loaded);
+    }
+
+    /**
+     * Replaces the cached course list with a fresh load from the underlying repository.
+     * The load runs without holding the cache, so readers keep being served the current
+     * entries until it completes.
+     */
+    public void refreshAll() {
+        List<Course> loaded = delegate.getAllCourses();
+        synchronized (this) {
+            putAll(loaded, System.nanoTime());
+        }
+    }
+
+    /**
+     * @return true while the full course list still comes from the warm-start snapshot,
+     *         which may be outdated; cleared by the first full load
+     */
+    public synchronized boolean isWarmStarted() {
+        return warmStarted;
+    }
+
+    @Override
+    public synchronized Optional<Course> getCourseById(String id) {
+        CacheEntry entry = courses.get(id);
+        if (entry != null && isFresh(entry.loadedAt())) {
+            hitCount++;
+            return Optional.of(entry.course());
+        }
+
+        missCount++;
+        return reloadCourse(id);
+    }
+
+    @Override
+    public synchronized Optional<Assignment> getAssignmentById(String assignmentId) {
+        String courseId = assignmentCourseIds.get(assignmentId);
+        CacheEntry entry = courseId != null ? courses.get(courseId) : null;
+        if (entry != null && isFresh(entry.loadedAt())) {
+            Optional<Assignment> cached = findAssignment(entry.course(), assignmentId);
+            if (cached.isPresent()) {
+                hitCount++;
+                return cached;
+            }
+        }
+
+        missCount++;
+        return delegate.getAssignmentById(assignmentId);
+    }
+
+    /**
+     * Not served from the cache: the underlying repository evaluates the query itself,
+     * e.g. as an indexed SQL query, instead of filtering every cached course.
+     */
+    @Override
+    public List<Assignment> findAssignments(AssignmentQuery query) {
+        return delegate.findAssignments(query);
+    }
+
+    /**
+     * Not served from the cache: the underlying repository pages through the matching
+     * rows, so memory use does not depend on the number of cached courses.
+     */
+    @Override
+    public Stream<Assignment> streamAssignments(AssignmentQuery query, int pageSize) {
+        return delegate.streamAssignments(query, pageSize);
+    }
+
+    /**
+     * Not served from the cache, so the underlying repository can select only the
+     * summary columns instead of projecting fully loaded assignments.
+     */
+    @Override
+    public List<AssignmentSummary> findAssignmentSummaries(AssignmentQuery query) {
+        return delegate.findAssignmentSummaries(query);
+    }
+
+    @Override
+    public synchronized void addCourse(Course course) {
+        delegate.addCourse(course);
+        putEntry(course, System.nanoTime());
+        if (allCourseIds != null && courses.containsKey(course.getId())) {
+            allCourseIds.add(course.getId());
+        }
+    }
+
+    @Override
+    public synchronized void updateCourse(Course course) {
+        boolean hasChanges = course.isDirty() || (course.getAssignments() != null &&
+            course.getAssignments().stream().anyMatch(Assignment::isDirty));
+        if (!hasChanges) {
+            // Nothing is written, so the cached copy needs no refresh either
+            return;
+        }
+        try {
+            delegate.updateCourse(course);
+        } catch (OptimisticLockException e) {
+            // The cached copy is stale (and may hold the rejected edits)
+            refreshIfCached(course.getId());
+            throw e;
+        }
+        // Reload rather than cache the argument: the stored course may hold
+        // assignments another client added that the argument does not
+        refreshIfCached(course.getId());
+    }
+
+    @Override
+    public synchronized void deleteCourse(String courseId) {
+        delegate.deleteCourse(courseId);
+        removeEntry(courseId);
+        if (allCourseIds != null) {
+            allCourseIds.remove(courseId);
+        }
+    }
+
+    @Override
+    public synchronized void addAssignment(Assignment assignment) {
+        delegate.addAssignment(assignment);
+        refreshIfCached(assignment.getCourseId());
+    }
+
+    @Override
+    public synchronized void updateAssignment(Assignment assignment) {
+        if (!assignment.isDirty()) {
+            return;
+        }
+        try {
+            delegate.updateAssignment(assignment);
+        } catch (OptimisticLockException e) {
+            refreshIfCached(assignment.getCourseId());
+            throw e;
+        }
+        refreshIfCached(assignment.getCourseId());
+    }
+
+    @Override
+    public synchronized void deleteAssignment(String courseId, String assignmentId) {
+        delegate.deleteAssignment(courseId, assignmentId);
+        refreshIfCached(courseId);
+    }
+
+    @Override
+    public synchronized void load() {
+        delegate.load();
+        invalidateAll();
+    }
+
+    @Override
+    public void save() {
+        delegate.save();
+    }
+
+    @Override
+    public void close() {
+        saveWarmStartSnapshot();
+        delegate.close();
+    }
+
+    /**
+     * Fetches changes from the underlying repository and applies them to the cached entries:
+     * changed courses replace their entry (or join the full course list), changed and deleted
+     * assignments are patched into copies of their cached course, and deleted courses are dropped.
+     * @throws UnsupportedOperationException if the underlying repository has no change feed
+     */
+    @Override
+    public ChangeSet getChangesSince(Instant watermark) {
+        if (!(delegate instanceof ChangeFeedRepository feed)) {
+            throw new UnsupportedOperationException(
+                delegate.getClass().getSimpleName() + " does not provide a change feed");
+        }
+        ChangeSet changes = feed.getChangesSince(watermark);
+        applyChanges(changes);
+        return changes;
+    }
+
+    /**
+     * @throws UnsupportedOperationException if the underlying repository has no change feed
+     */
+    @Override
+    public Instant currentWatermark() {
+        if (!(delegate instanceof ChangeFeedRepository feed)) {
+            throw new UnsupportedOperationException(
+                delegate.getClass().getSimpleName() + " does not provide a change feed");
+        }
+        return feed.currentWatermark();
+    }
+
+    private synchronized void applyChanges(ChangeSet changes) {
+        if (changes.resetRequired()) {
+            invalidateAll();
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (Course course : changes.changedCourses()) {
+            if (allCourseIds == null && !courses.containsKey(course.getId())) {
+                continue;
+            }
+            putEntry(course, now);
+            // putEntry may have evicted and dropped the full list
+            if (allCourseIds != null && !allCourseIds.contains(course.getId())) {
+                allCourseIds.add(course.getId());
+            }
+        }
+
+        Map<String, Course> patched = new HashMap<>();
+        for (Assignment assignment : changes.changedAssignments()) {
+            Course course = patchableCourse(assignment.getCourseId(), patched);
+            if (course != null) {
+                course.getAssignments().removeIf(a -> a.getId().equals(assignment.getId()));
+                course.getAssignments().add(assignment);
+            }
+        }
+        for (ChangeSet.DeletedAssignment deleted : changes.deletedAssignments()) {
+            Course course = patchableCourse(deleted.courseId(), patched);
+            if (course != null) {
+                course.getAssignments().removeIf(a -> a.getId().equals(deleted.assignmentId()));
+            }
+        }
+        for (Course course : patched.values()) {
+            course.getAssignments().sort(Comparator.comparing(Assignment::getDueDate,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+            putEntry(course, now);
+        }
+
+        for (String courseId : changes.deletedCourseIds()) {
+            removeEntry(courseId);
+            if (allCourseIds != null) {
+                allCourseIds.remove(courseId);
+            }
+        }
+    }
+
+    /**
+     * Private copy of a cached course to apply assignment changes to, since cached
+     * instances are shared with callers; null if the course is not cached.
+     */
+    private Course patchableCourse(String courseId, Map<String, Course> patched) {
+        Course course = patched.get(courseId);
+        if (course == null) {
+            CacheEntry entry = courses.get(courseId);
+            if (entry == null) {
+                return null;
+            }
+            course = new Course(entry.course());
+            if (course.getAssignments() == null) {
+                course.setAssignments(new ArrayList<>());
+            }
+            patched.put(courseId, course);
+        }
+        return course;
+    }
+
+    /**
+     * Drops every cached entry so the next read goes to the underlying repository.
+     */
+    public synchronized void invalidateAll() {
+        clearEntries();
+        allCourseIds = null;
+        warmStarted = false;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public synchronized long getCurrentWeight() {
+        return currentWeight;
+    }
+
+    // ===== Helper Methods =====
+
+    private synchronized void loadWarmStartSnapshot() {
+        if (warmStartFile == null || !Files.exists(warmStartFile)) {
+            return;
+        }
+
+        List<Course> loaded = new ArrayList<>();
+        try {
+            snapshotCodec.read(warmStartFile, loaded::add);
+        } catch (IOException e) {
+            System.err.println("Ignoring warm-start snapshot: " + e.getMessage());
+            return;
+        }
+
+        // Load times of a TTL ago: the list is served as is for the first screen,
+        // but single entries count as stale and are revalidated when read
+        long now = System.nanoTime();
+        putAll(loaded, now - ttlNanos);
+        allCoursesLoadedAt = now;
+        warmStarted = true;
+    }
+
+    /**
+     * Writes the cached courses for the next start, but only while the cache
+     * holds the complete list; a partial snapshot would hide courses on startup.
+     */
+    private synchronized void saveWarmStartSnapshot() {
+        if (warmStartFile == null || allCourseIds == null) {
+            return;
+        }
+
+        List<Course> snapshot = new ArrayList<>(allCourseIds.size());
+        for (String id : allCourseIds) {
+            CacheEntry entry = courses.get(id);
+            if (entry == null) {
+                return;
+            }
+            snapshot.add(entry.course());
+        }
+
+        Path tempFile = warmStartFile.resolveSibling(warmStartFile.getFileName() + ".tmp");
+        try {
+            snapshotCodec.write(tempFile, snapshot);
+            Files.move(tempFile, warmStartFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Failed to write warm-start snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Caches a complete course list in place of everything cached before.
+     */
+    private void putAll(List<Course> loaded, long loadedAt) {
+        clearEntries();
+        allCourseIds = new ArrayList<>(loaded.size());
+        for (Course course : loaded) {
+            allCourseIds.add(course.getId());
+        }
+        allCoursesLoadedAt = loadedAt;
+        warmStarted = false;
+        for (Course course : loaded) {
+            putEntry(course, loadedAt);
+        }
+    }
+
+    private boolean isFresh(long loadedAt) {
+        return System.nanoTime() - loadedAt < ttlNanos;
+    }
+
+    private Optional<Course> reloadCourse(String courseId) {
+        Optional<Course> loaded = delegate.getCourseById(courseId);
+        if (loaded.isPresent()) {
+            putEntry(loaded.get(), System.nanoTime());
+        } else {
+            removeEntry(courseId);
+            if (allCourseIds != null) {
+                allCourseIds.remove(courseId);
+            }
+        }
+        return loaded;
+    }
+
+    private void refreshIfCached(String courseId) {
+        if (courseId != null && courses.containsKey(courseId)) {
+            reloadCourse(courseId);
+        }
+    }
+
+    private Optional<Assignment> findAssignment(Course course, String assignmentId) {
+        if (course.getAssignments() == null) {
+            return Optional.empty();
+        }
+        return course.getAssignments().stream()
+                .filter(a -> a.getId().equals(assignmentId))
+                .findFirst();
+    }
+
+    private void putEntry(Course course, long loadedAt) {
+        removeEntry(course.getId());
+
+        List<Assignment> assignments = course.getAssignments();
+        long weight = 1 + (assignments != null ? assignments.size() : 0);
+        courses.put(course.getId(), new CacheEntry(course, loadedAt, weight));
+        currentWeight += weight;
+        if (assignments != null) {
+            for (Assignment assignment : assignments) {
+                assignmentCourseIds.put(assignment.getId(), course.getId());
+            }
+        }
+
+        evictIfNeeded();
+    }
+
+    private void removeEntry(String courseId) {
+        CacheEntry removed = courses.remove(courseId);
+        if (removed != null) {
+            currentWeight -= removed.weight();
+            unindexAssignments(removed.course());
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, CacheEntry>> eldest = courses.entrySet().iterator();
+        // Always keep the most recent entry, even if it alone exceeds the bound
+        while (currentWeight > maxWeight && courses.size() > 1 && eldest.hasNext()) {
+            CacheEntry evicted = eldest.next().getValue();
+            eldest.remove();
+            currentWeight -= evicted.weight();
+            unindexAssignments(evicted.course());
+            evictionCount++;
+            allCourseIds = null;
+        }
+    }
+
+    private void unindexAssignments(Course course) {
+        if (course.getAssignments() != null) {
+            for (Assignment assignment : course.getAssignments()) {
+                assignmentCourseIds.remove(assignment.getId(), course.getId());
+            }
+        }
+    }
+
+    private void clearEntries() {
+        courses.clear();
+        assignmentCourseIds.clear();
+        currentWeight = 0;
+    }
+
+    private record CacheEntry(Course course, long loadedAt, long weight) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.jscheduler.repository;
+
+import java.time.Instant;
+
+/**
+ * Repository capability for incremental synchronization.
+ * Lets a running client pick up what other clients changed without reloading everything.
+ */
+public interface ChangeFeedRepository {
+
+    /**
+     * Finds the rows changed or deleted since a watermark.
+     * Changes close to the watermark may be reported more than once, so applying
+     * a change set must be idempotent.
+     * @param watermark The watermark of the previous change set, or the time of the last full load
+     * @return The changes, carrying the watermark to pass on the next call
+     */
+    ChangeSet getChangesSince(Instant watermark);
+
+    /**
+     * Watermark to take before a full load: passed to the first {@link #getChangesSince}
+     * call, it reports everything changed while the load was running.
+     * @return A watermark from the storage clock rather than the client clock
+     */
+    Instant currentWatermark();
+}
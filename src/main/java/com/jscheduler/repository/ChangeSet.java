@@ -0,0 +1,36 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.Course;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Rows changed or deleted since a watermark, as returned by {@link ChangeFeedRepository}.
+ *
+ * @param changedCourses Courses whose own row changed, each with its complete list of
+ *                       assignments; they replace whatever was held for that course
+ * @param changedAssignments Changed assignments of courses that are not in changedCourses
+ * @param deletedCourseIds Deleted courses; their assignments are gone too
+ * @param deletedAssignments Assignments deleted from courses that still exist
+ * @param watermark Watermark to pass to the next call
+ * @param resetRequired True if the requested watermark is older than the deletions still
+ *                      on record; the lists are then empty and the caller must reload everything
+ */
+public record ChangeSet(List<Course> changedCourses, List<Assignment> changedAssignments,
+                        List<String> deletedCourseIds, List<DeletedAssignment> deletedAssignments,
+                        Instant watermark, boolean resetRequired) {
+
+    public static ChangeSet reset(Instant watermark) {
+        return new ChangeSet(List.of(), List.of(), List.of(), List.of(), watermark, true);
+    }
+
+    public boolean isEmpty() {
+        return !resetRequired && changedCourses.isEmpty() && changedAssignments.isEmpty()
+                && deletedCourseIds.isEmpty() && deletedAssignments.isEmpty();
+    }
+
+    public record DeletedAssignment(String courseId, String assignmentId) {
+    }
+}
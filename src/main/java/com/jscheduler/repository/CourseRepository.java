@@ -1,16 +1,18 @@
 package com.jscheduler.repository;
 
+import com.jscheduler.model.Assignment;
 import com.jscheduler.model.Course;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Course data access.
  * Abstracts storage implementation details from services.
  * Implementations can use JSON, MySQL, or other storage backends.
  */
-public interface CourseRepository {
+public interface CourseRepository extends AssignmentQueryRepository {
 
     /**
      * Retrieves all courses from storage.
@@ -18,6 +20,16 @@ public interface CourseRepository {
      */
     List<Course> getAllCourses();
 
+    /**
+     * Streams all courses with their assignments, in no particular order.
+     * The default implementation streams {@link #getAllCourses()}; database
+     * implementations should page so memory use does not grow with the data.
+     * @return Stream of all courses
+     */
+    default Stream<Course> streamCourses() {
+        return getAllCourses().stream();
+    }
+
     /**
      * Retrieves a course by its unique identifier.
      * @param id The course ID
@@ -25,15 +37,46 @@ public interface CourseRepository {
      */
     Optional<Course> getCourseById(String id);
 
+    /**
+     * Retrieves a single assignment by its unique identifier.
+     * @param assignmentId The assignment ID
+     * @return Optional containing the assignment if found
+     */
+    Optional<Assignment> getAssignmentById(String assignmentId);
+
     /**
      * Adds a new course to storage.
      * @param course The course to add
      */
     void addCourse(Course course);
 
+    /**
+     * Adds several courses to storage.
+     * The default implementation adds them one at a time; implementations
+     * should write the whole list in one batch.
+     * @param courses The courses to add
+     */
+    default void addCourses(List<Course> courses) {
+        courses.forEach(this::addCourse);
+    }
+
+    /**
+     * Adds courses copied from another store. Unlike {@link #addCourses}, shared backends
+     * keep the assignments' {@code updatedAt} instead of stamping them with their own clock.
+     * The default implementation delegates to {@link #addCourses}.
+     * @param courses The courses to add
+     */
+    default void importCourses(List<Course> courses) {
+        addCourses(courses);
+    }
+
     /**
      * Updates an existing course in storage.
+     * Shared backends only apply the update if the course is still at the version
+     * it was read with, and then advance its version.
      * @param course The course with updated information
+     * @throws OptimisticLockException if another client changed or deleted the course
+     *         (or one of its assignments) since it was read
      */
     void updateCourse(Course course);
 
@@ -43,6 +86,57 @@ public interface CourseRepository {
      */
     void deleteCourse(String courseId);
 
+    /**
+     * Adds a single assignment to an existing course.
+     * Only the new assignment is written; the rest of the course is untouched.
+     * @param assignment The assignment to add (its course ID identifies the owning course)
+     */
+    void addAssignment(Assignment assignment);
+
+    /**
+     * Updates a single existing assignment in storage.
+     * Shared backends only apply the update if the assignment is still at the version
+     * it was read with, and then advance its version.
+     * @param assignment The assignment with updated information
+     * @throws OptimisticLockException if another client changed or deleted the assignment
+     *         since it was read
+     */
+    void updateAssignment(Assignment assignment);
+
+    /**
+     * Deletes a single assignment from storage.
+     * @param courseId The ID of the course owning the assignment
+     * @param assignmentId The ID of the assignment to delete
+     */
+    void deleteAssignment(String courseId, String assignmentId);
+
+    /**
+     * Finds assignments matching a query.
+     * The default implementation evaluates the query in memory over all courses;
+     * database implementations should translate it into an indexed query.
+     * @param query Filters, sort order and limit to apply
+     * @return Matching assignments in the requested order
+     */
+    @Override
+    default List<Assignment> findAssignments(AssignmentQuery query) {
+        return query.apply(getAllCourses().stream()
+                .flatMap(c -> c.getAssignments().stream()));
+    }
+
+    /**
+     * Streams assignments matching a query in due date order.
+     * The default implementation suits in-memory backends, where the data is
+     * already resident and a single sorted pass beats repeated paging;
+     * database implementations should page with {@link AssignmentPageIterator}.
+     * @param query Filters and optional overall limit to apply
+     * @param pageSize Number of rows fetched per page (ignored by in-memory backends)
+     * @return Stream of matching assignments
+     */
+    @Override
+    default Stream<Assignment> streamAssignments(AssignmentQuery query, int pageSize) {
+        return findAssignments(query.copy().setSortOrder(AssignmentQuery.SortOrder.DUE_DATE)).stream();
+    }
+
     /**
      * Loads data from storage (for initialization).
      * No-op for database implementations.
@@ -54,4 +148,11 @@ public interface CourseRepository {
      * No-op for database implementations (data persisted immediately).
      */
     void save();
+
+    /**
+     * Flushes any pending writes and releases resources held by the repository.
+     * No-op by default.
+     */
+    default void close() {
+    }
 }
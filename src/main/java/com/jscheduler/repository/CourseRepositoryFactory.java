@@ -0,0 +1,23 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.config.DatabaseConfig;
+
+/**
+ * Creates the SQL CourseRepository selected by {@code db.backend} in database.properties.
+ */
+public final class CourseRepositoryFactory {
+
+    private CourseRepositoryFactory() {
+    }
+
+    public static JdbcCourseRepository createDatabaseRepository() {
+        return createDatabaseRepository(DatabaseConfig.getInstance());
+    }
+
+    public static JdbcCourseRepository createDatabaseRepository(DatabaseConfig dbConfig) {
+        return switch (dbConfig.getBackend()) {
+            case MYSQL -> new MySQLCourseRepository(dbConfig);
+            case H2 -> new H2CourseRepository(dbConfig);
+        };
+    }
+}
@@ -0,0 +1,243 @@
+package com.jscheduler.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.Course;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of DataRepository mutations, one compact JSON record per line.
+ * Records are idempotent (put/delete by ID), so replaying a log on top of a snapshot
+ * that already contains some of its changes yields the same result.
+ */
+class DataJournal implements Closeable {
+
+    enum Operation {
+        PUT_COURSE,
+        DELETE_COURSE,
+        PUT_ASSIGNMENT,
+        DELETE_ASSIGNMENT
+    }
+
+    record Entry(Operation operation, Course course, Assignment assignment,
+                 String courseId, String assignmentId) {
+
+        static Entry putCourse(Course course) {
+            return new Entry(Operation.PUT_COURSE, course, null, course.getId(), null);
+        }
+
+        static Entry deleteCourse(String courseId) {
+            return new Entry(Operation.DELETE_COURSE, null, null, courseId, null);
+        }
+
+        static Entry putAssignment(Assignment assignment) {
+            return new Entry(Operation.PUT_ASSIGNMENT, null, assignment,
+                    assignment.getCourseId(), assignment.getId());
+        }
+
+        static Entry deleteAssignment(String courseId, String assignmentId) {
+            return new Entry(Operation.DELETE_ASSIGNMENT, null, null, courseId, assignmentId);
+        }
+    }
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter compactWriter;
+    private FileChannel channel;
+    private int entryCount;
+    // Bytes cut from the front of the log so far, so positions stay valid across cuts
+    private long discardedBytes;
+
+    DataJournal(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * Appends one record and forces it to disk before returning.
+     */
+    synchronized void append(Entry entry) throws IOException {
+        byte[] line = (compactWriter.writeValueAsString(toJson(entry)) + "\n")
+                .getBytes(StandardCharsets.UTF_8);
+
+        FileChannel out = openChannel();
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        out.force(false);
+        entryCount++;
+    }
+
+    /**
+     * Reads every complete record in the log. A trailing line without a newline
+     * is a write torn by a crash; it is skipped and cut off so later appends
+     * start on a clean line.
+     */
+    synchronized List<Entry> readAll() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.exists(path)) {
+            entryCount = 0;
+            return entries;
+        }
+
+        byte[] content = Files.readAllBytes(path);
+        int completeLength = content.length;
+        while (completeLength > 0 && content[completeLength - 1] != '\n') {
+            completeLength--;
+        }
+        if (completeLength < content.length) {
+            System.err.println("Discarding torn journal record at end of " + path);
+            openChannel().truncate(completeLength);
+        }
+
+        String[] lines = new String(content, 0, completeLength, StandardCharsets.UTF_8).split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i].isBlank()) {
+                continue;
+            }
+            try {
+                entries.add(fromJson(objectMapper.readTree(lines[i])));
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                System.err.println("Skipping corrupt journal record " + (i + 1) +
+                    ": " + e.getMessage());
+            }
+        }
+
+        entryCount = entries.size();
+        return entries;
+    }
+
+    /**
+     * Discards all records, typically right after they were folded into a snapshot.
+     */
+    synchronized void reset() throws IOException {
+        FileChannel out = openChannel();
+        discardedBytes += out.size();
+        out.truncate(0);
+        out.force(true);
+        entryCount = 0;
+    }
+
+    /**
+     * @return Position just past the last record. Positions count from the start of the
+     *         log's history, so one taken earlier still marks the same record after the
+     *         front of the log has been discarded.
+     */
+    synchronized long getPosition() throws IOException {
+        return discardedBytes + openChannel().size();
+    }
+
+    /**
+     * Discards the records before a position from {@link #getPosition()}, typically once
+     * a snapshot taken at that position has been written, and keeps those appended since.
+     */
+    synchronized void discardBefore(long position) throws IOException {
+        FileChannel out = openChannel();
+        long keepFrom = position - discardedBytes;
+        long size = out.size();
+        if (keepFrom <= 0) {
+            return;
+        }
+        if (keepFrom >= size) {
+            reset();
+            return;
+        }
+
+        ByteBuffer tail = ByteBuffer.allocate(Math.toIntExact(size - keepFrom));
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (tail.hasRemaining() && in.read(tail, keepFrom + tail.position()) >= 0) {
+                // Keep reading until the tail is complete
+            }
+        }
+        tail.flip();
+        int kept = 0;
+        for (int i = 0; i < tail.limit(); i++) {
+            if (tail.get(i) == '\n') {
+                kept++;
+            }
+        }
+
+        // Rewrite the kept records to a new file and rename it over the log
+        Path tempFile = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel temp = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (tail.hasRemaining()) {
+                temp.write(tail);
+            }
+            temp.force(true);
+        }
+        close();
+        try {
+            Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        discardedBytes = position;
+        entryCount = kept;
+    }
+
+    synchronized int getEntryCount() {
+        return entryCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private FileChannel openChannel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private JsonNode toJson(Entry entry) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("op", entry.operation().name());
+        node.put("courseId", entry.courseId());
+        if (entry.assignmentId() != null) {
+            node.put("assignmentId", entry.assignmentId());
+        }
+        if (entry.course() != null) {
+            node.set("course", objectMapper.valueToTree(entry.course()));
+        }
+        if (entry.assignment() != null) {
+            node.set("assignment", objectMapper.valueToTree(entry.assignment()));
+        }
+        return node;
+    }
+
+    private Entry fromJson(JsonNode node) throws JsonProcessingException {
+        Operation operation = Operation.valueOf(node.path("op").asText());
+        Course course = node.hasNonNull("course") ?
+                objectMapper.treeToValue(node.get("course"), Course.class) : null;
+        Assignment assignment = node.hasNonNull("assignment") ?
+                objectMapper.treeToValue(node.get("assignment"), Assignment.class) : null;
+        return new Entry(operation, course, assignment,
+                node.path("courseId").textValue(), node.path("assignmentId").textValue());
+    }
+}
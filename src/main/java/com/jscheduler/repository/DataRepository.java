@@ -1,35 +1,101 @@
 package com.jscheduler.repository;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jscheduler.model.Assignment;
 import com.jscheduler.model.Course;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class DataRepository implements CourseRepository {
 
     private static final String DATA_DIR = "data";
-    private static final String DATA_FILE = "scheduler-data.json";
+    private static final String JOURNAL_FILE = "scheduler-data.journal";
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
 
     private final ObjectMapper objectMapper;
+    private final SnapshotCodec snapshotCodec;
+    private final Options options;
+    private final Path dataDirectory;
     private final Path dataFilePath;
-    private List<Course> courses;
+    private final DataJournal journal;
+    private final ExecutorService compactionExecutor;
+    private final AtomicBoolean compactionPending = new AtomicBoolean();
+    // Published copy-on-write state; read without locking, replaced by writers holding "this"
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    // Version of the snapshot last written by save(); guarded by "this"
+    private long savedVersion = -1;
+
+    // Write-behind state; flushLock serializes snapshot writes and is taken before "this"
+    private final ScheduledExecutorService flushExecutor;
+    private final Thread shutdownFlushHook;
+    private final Object flushLock = new Object();
+    private ScheduledFuture<?> pendingFlush;
+    private boolean dirty;
+    private long dirtySinceNanos;
+    private long mutationCount;
+    private long flushCount;
+    private long totalFlushLatencyNanos;
+    private long maxFlushLatencyNanos;
 
     public DataRepository() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
-        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this(new Options());
+    }
+
+    public DataRepository(Options options) {
+        this.objectMapper = JsonSnapshotCodec.createObjectMapper();
+
+        if (options.journaled && options.writeBehindQuietPeriod != null) {
+            throw new IllegalArgumentException(
+                "Write-behind applies to snapshot mode; journaled writes are already incremental");
+        }
+
+        this.snapshotCodec = createCodec(options.snapshotFormat);
+        this.options = options;
+        this.dataDirectory = options.dataDirectory;
+        this.dataFilePath = dataDirectory.resolve(options.snapshotFormat.fileName);
 
-        this.dataFilePath = Path.of(DATA_DIR, DATA_FILE);
-        this.courses = new ArrayList<>();
+        if (options.journaled) {
+            this.journal = new DataJournal(dataDirectory.resolve(JOURNAL_FILE), objectMapper);
+            this.compactionExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "DataRepository-compaction");
+                t.setDaemon(true);
+                return t;
+            });
+        } else {
+            this.journal = null;
+            this.compactionExecutor = null;
+        }
+
+        if (options.writeBehindQuietPeriod != null) {
+            this.flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "DataRepository-flush");
+                t.setDaemon(true);
+                return t;
+            });
+            // Daemon flush thread dies with the JVM, so flush whatever is still pending on exit
+            this.shutdownFlushHook = new Thread(this::flush, "DataRepository-shutdown-flush");
+            Runtime.getRuntime().addShutdownHook(shutdownFlushHook);
+        } else {
+            this.flushExecutor = null;
+            this.shutdownFlushHook = null;
+        }
 
         initializeDataDirectory();
         load();
@@ -37,83 +103,726 @@ public class DataRepository implements CourseRepository {
 
     private void initializeDataDirectory() {
         try {
-            Files.createDirectories(Path.of(DATA_DIR));
+            Files.createDirectories(dataDirectory);
         } catch (IOException e) {
             System.err.println("Failed to create data directory: " + e.getMessage());
+            return;
+        }
+        // Temporary files of saves that a crash interrupted
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(dataDirectory,
+                dataFilePath.getFileName() + ".*.tmp")) {
+            for (Path tempFile : stale) {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to remove temporary files: " + e.getMessage());
         }
     }
 
-    public void load() {
-        File file = dataFilePath.toFile();
-        if (file.exists()) {
+    /**
+     * Loads the last snapshot and, in journaled mode, replays the journal on top of it.
+     */
+    public synchronized void load() {
+        Path source = dataFilePath;
+        SnapshotCodec codec = snapshotCodec;
+        if (!Files.exists(source) && options.snapshotFormat != SnapshotFormat.JSON) {
+            // Switching formats: start from the JSON file, the next save writes the new format
+            source = dataDirectory.resolve(SnapshotFormat.JSON.fileName);
+            codec = createCodec(SnapshotFormat.JSON);
+        }
+
+        boolean exists = Files.exists(source);
+        SnapshotBuilder builder = new SnapshotBuilder(exists ? Snapshot.EMPTY : snapshot);
+        if (exists) {
             try {
-                DataWrapper wrapper = objectMapper.readValue(file, DataWrapper.class);
-                this.courses = wrapper.getCourses() != null ? wrapper.getCourses() : new ArrayList<>();
+                codec.read(source, builder::adoptCourse);
             } catch (IOException e) {
                 System.err.println("Failed to load data: " + e.getMessage());
-                this.courses = new ArrayList<>();
+                builder = new SnapshotBuilder(Snapshot.EMPTY);
+            }
+        }
+
+        if (journal != null) {
+            try {
+                for (DataJournal.Entry entry : journal.readAll()) {
+                    builder.replay(entry);
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to replay journal: " + e.getMessage());
             }
         }
+
+        publish(builder);
+        if (journal != null) {
+            scheduleCompactionIfNeeded();
+        }
     }
 
+    /**
+     * Writes a full snapshot now. In journaled mode this also folds the journal into it;
+     * in write-behind mode it flushes immediately instead of waiting for the quiet period.
+     */
     public void save() {
+        if (flushExecutor != null) {
+            synchronized (this) {
+                markDirty();
+            }
+            flush();
+            return;
+        }
+
+        // The snapshot is immutable, so only taking it and swapping the file in hold the
+        // lock; writers are not blocked while it is written. Each save writes its own
+        // temporary file, as saves may overlap.
+        Path tempFile = null;
         try {
-            DataWrapper wrapper = new DataWrapper(courses);
-            objectMapper.writeValue(dataFilePath.toFile(), wrapper);
+            Snapshot data;
+            long journalPosition;
+            synchronized (this) {
+                data = snapshot;
+                journalPosition = journal != null ? journal.getPosition() : 0;
+            }
+
+            tempFile = Files.createTempFile(dataDirectory, dataFilePath.getFileName() + ".", ".tmp");
+            snapshotCodec.write(tempFile, data.courses.values());
+
+            synchronized (this) {
+                // An overlapping save may have written a newer snapshot already
+                if (data.version > savedVersion) {
+                    moveIntoPlace(tempFile);
+                    savedVersion = data.version;
+                    if (journal != null) {
+                        // Records appended while the snapshot was written are kept
+                        journal.discardBefore(journalPosition);
+                    }
+                }
+            }
         } catch (IOException e) {
             System.err.println("Failed to save data: " + e.getMessage());
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    System.err.println("Failed to delete " + tempFile + ": " + e.getMessage());
+                }
+            }
         }
     }
 
+    /**
+     * Flushes pending write-behind changes, stops background threads
+     * and releases the journal file.
+     */
+    public void close() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            flush();
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownFlushHook);
+            } catch (IllegalStateException e) {
+                // JVM is already shutting down; the hook flush is harmless
+            }
+        }
+        if (compactionExecutor != null) {
+            compactionExecutor.shutdown();
+            try {
+                // Let a running compaction finish before its journal is closed
+                compactionExecutor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close journal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Current immutable view of the data. Several reads against the same snapshot
+     * are mutually consistent, whatever writers do in the meantime.
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
     // Course operations
     public List<Course> getAllCourses() {
-        return new ArrayList<>(courses);
+        return snapshot.getAllCourses();
     }
 
     public Optional<Course> getCourseById(String id) {
-        return courses.stream()
-                .filter(c -> c.getId().equals(id))
-                .findFirst();
+        return snapshot.getCourseById(id);
+    }
+
+    public synchronized void addCourse(Course course) {
+        SnapshotBuilder builder = new SnapshotBuilder(snapshot);
+        builder.putCourse(course);
+        publish(builder);
+        persist(DataJournal.Entry.putCourse(course));
+        markStored(course);
     }
 
-    public void addCourse(Course course) {
-        courses.add(course);
-        save();
+    /**
+     * Adds all courses as one snapshot version, written out with a single save
+     * (or one journal append per course in journaled mode).
+     */
+    @Override
+    public synchronized void addCourses(List<Course> courses) {
+        SnapshotBuilder builder = new SnapshotBuilder(snapshot);
+        courses.forEach(builder::putCourse);
+        publish(builder);
+        persist(courses.stream().map(DataJournal.Entry::putCourse).toList());
+        courses.forEach(DataRepository::markStored);
     }
 
-    public void updateCourse(Course course) {
-        for (int i = 0; i < courses.size(); i++) {
-            if (courses.get(i).getId().equals(course.getId())) {
-                courses.set(i, course);
+    /**
+     * Updates the course like the database repository does: its fields are replaced if
+     * they changed, new and changed assignments are stored, and stored assignments missing
+     * from the course are left alone. Everything is marked clean afterwards.
+     * @throws OptimisticLockException if the course carries a stored assignment that was
+     *         deleted in the meantime; nothing is written in that case
+     */
+    public synchronized void updateCourse(Course course) {
+        if (!snapshot.courses.containsKey(course.getId())) {
+            return;
+        }
+        SnapshotBuilder builder = new SnapshotBuilder(snapshot);
+        Course stored = builder.updateCourse(course);
+        if (stored != null) {
+            publish(builder);
+            // The merged course, so replaying the record gives the same result
+            persist(DataJournal.Entry.putCourse(stored));
+        }
+        markStored(course);
+    }
+
+    public synchronized void deleteCourse(String courseId) {
+        SnapshotBuilder builder = new SnapshotBuilder(snapshot);
+        builder.removeCourse(courseId);
+        publish(builder);
+        persist(DataJournal.Entry.deleteCourse(courseId));
+    }
+
+    // Assignment operations
+    public Optional<Assignment> getAssignmentById(String assignmentId) {
+        return snapshot.getAssignmentById(assignmentId);
+    }
+
+    public List<Assignment> findAssignments(AssignmentQuery query) {
+        return snapshot.findAssignments(query);
+    }
+
+    public synchronized void addAssignment(Assignment assignment) {
+        SnapshotBuilder builder = new SnapshotBuilder(snapshot);
+        if (builder.putAssignment(assignment, true)) {
+            publish(builder);
+            persist(DataJournal.Entry.putAssignment(assignment));
+            markStored(assignment);
+        }
+    }
+
+    public synchronized void updateAssignment(Assignment assignment) {
+        SnapshotBuilder builder = new SnapshotBuilder(snapshot);
+        if (builder.putAssignment(assignment, false)) {
+            publish(builder);
+            persist(DataJournal.Entry.putAssignment(assignment));
+        }
+    }
+
+    public synchronized void deleteAssignment(String courseId, String assignmentId) {
+        SnapshotBuilder builder = new SnapshotBuilder(snapshot);
+        if (builder.removeAssignment(courseId, assignmentId)) {
+            publish(builder);
+            persist(DataJournal.Entry.deleteAssignment(courseId, assignmentId));
+        }
+    }
+
+    /**
+     * Marks an argument as stored. Stored rows start at version 1, as in the SQL
+     * repository, so a stale copy can be told apart from a new assignment; versions
+     * are not advanced or checked otherwise.
+     */
+    private static void markStored(Course course) {
+        course.setVersion(Math.max(course.getVersion(), 1));
+        course.markClean();
+        if (course.getAssignments() != null) {
+            course.getAssignments().forEach(DataRepository::markStored);
+        }
+    }
+
+    private static void markStored(Assignment assignment) {
+        assignment.setVersion(Math.max(assignment.getVersion(), 1));
+        assignment.markClean();
+    }
+
+    // ===== Persistence helpers =====
+
+    /**
+     * Statistics for write-behind mode.
+     * @return Mutations seen, snapshot flushes, mutations per flush and flush latency
+     *         measured from the first unflushed mutation to the completed write
+     */
+    public synchronized WriteStats getWriteStats() {
+        return new WriteStats(mutationCount, flushCount,
+            flushCount > 0 ? (double) mutationCount / flushCount : 0.0,
+            flushCount > 0 ? totalFlushLatencyNanos / flushCount / 1_000_000.0 : 0.0,
+            maxFlushLatencyNanos / 1_000_000.0);
+    }
+
+    /**
+     * Records a mutation: appended to the journal in journaled mode, coalesced
+     * into a delayed flush in write-behind mode, otherwise written out as a full snapshot.
+     */
+    private void persist(DataJournal.Entry entry) {
+        persist(List.of(entry));
+    }
+
+    private void persist(List<DataJournal.Entry> entries) {
+        if (flushExecutor != null) {
+            markDirty();
+            return;
+        }
+        if (journal == null) {
+            save();
+            return;
+        }
+
+        try {
+            for (DataJournal.Entry entry : entries) {
+                journal.append(entry);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to append to journal, writing snapshot: " + e.getMessage());
+            save();
+            return;
+        }
+        scheduleCompactionIfNeeded();
+    }
+
+    private void scheduleCompactionIfNeeded() {
+        if (journal.getEntryCount() < options.compactionThreshold ||
+                !compactionPending.compareAndSet(false, true)) {
+            return;
+        }
+        compactionExecutor.execute(() -> {
+            try {
                 save();
+            } finally {
+                compactionPending.set(false);
+            }
+        });
+    }
+
+    /**
+     * Marks the data dirty and (re)schedules the flush: after the quiet period
+     * following the latest mutation, but no later than the max delay after the first.
+     * Must be called while holding the repository lock.
+     */
+    private void markDirty() {
+        long now = System.nanoTime();
+        mutationCount++;
+        if (!dirty) {
+            dirty = true;
+            dirtySinceNanos = now;
+        }
+        if (flushExecutor.isShutdown()) {
+            return;
+        }
+
+        long quietNanos = options.writeBehindQuietPeriod.toNanos();
+        long deadlineNanos = dirtySinceNanos + options.writeBehindMaxDelay.toNanos() - now;
+        long delayNanos = Math.max(0, Math.min(quietNanos, deadlineNanos));
+
+        if (pendingFlush != null) {
+            pendingFlush.cancel(false);
+        }
+        pendingFlush = flushExecutor.schedule(this::flush, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Writes the current state if it is dirty. The snapshot is taken under the repository
+     * lock and written without holding it, so the UI thread is not blocked on I/O.
+     */
+    private void flush() {
+        synchronized (flushLock) {
+            Snapshot data;
+            long dirtySince;
+            synchronized (this) {
+                if (!dirty) {
+                    return;
+                }
+                data = snapshot;
+                dirty = false;
+                dirtySince = dirtySinceNanos;
+            }
+
+            try {
+                writeSnapshot(data);
+            } catch (IOException e) {
+                System.err.println("Failed to save data: " + e.getMessage());
+                synchronized (this) {
+                    // Keep the changes pending so the next mutation or close() retries
+                    if (!dirty) {
+                        dirty = true;
+                        dirtySinceNanos = dirtySince;
+                    }
+                }
                 return;
             }
+
+            long latency = System.nanoTime() - dirtySince;
+            synchronized (this) {
+                flushCount++;
+                totalFlushLatencyNanos += latency;
+                maxFlushLatencyNanos = Math.max(maxFlushLatencyNanos, latency);
+            }
         }
     }
 
-    public void deleteCourse(String courseId) {
-        courses.removeIf(c -> c.getId().equals(courseId));
-        save();
+    /**
+     * Streams the snapshot to a temporary file and renames it over the old one,
+     * so a crash mid-write never leaves a truncated data file behind.
+     * Snapshot contents are never modified, so no lock is needed while writing.
+     */
+    private void writeSnapshot(Snapshot data) throws IOException {
+        Path tempFile = dataFilePath.resolveSibling(dataFilePath.getFileName() + ".tmp");
+        snapshotCodec.write(tempFile, data.courses.values());
+        moveIntoPlace(tempFile);
     }
 
-    // Inner class for JSON wrapper
-    private static class DataWrapper {
-        private List<Course> courses;
+    private void moveIntoPlace(Path tempFile) throws IOException {
+        try {
+            Files.move(tempFile, dataFilePath,
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, dataFilePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
 
-        public DataWrapper() {
-            this.courses = new ArrayList<>();
+    private SnapshotCodec createCodec(SnapshotFormat format) {
+        return format == SnapshotFormat.BINARY ? new BinarySnapshotCodec() : new JsonSnapshotCodec(objectMapper);
+    }
+
+    /**
+     * Publishes the builder's state as the next snapshot version.
+     * Must be called while holding the repository lock.
+     */
+    private void publish(SnapshotBuilder builder) {
+        snapshot = builder.build(snapshot.version + 1);
+    }
+
+    /**
+     * On-disk format of the full data snapshot.
+     */
+    public enum SnapshotFormat {
+        /** Human-readable {"courses": [...]} document */
+        JSON("scheduler-data.json"),
+        /** Compact, checksummed binary file that is memory-mapped on load */
+        BINARY("scheduler-data.bin");
+
+        private final String fileName;
+
+        SnapshotFormat(String fileName) {
+            this.fileName = fileName;
         }
+    }
 
-        public DataWrapper(List<Course> courses) {
-            this.courses = courses;
+    /**
+     * Storage settings for a DataRepository.
+     */
+    public static class Options {
+        private Path dataDirectory = Path.of(DATA_DIR);
+        private boolean journaled;
+        private int compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+        private Duration writeBehindQuietPeriod;
+        private Duration writeBehindMaxDelay;
+        private SnapshotFormat snapshotFormat = SnapshotFormat.JSON;
+
+        public Options() {
+        }
+
+        public Options setDataDirectory(Path dataDirectory) {
+            this.dataDirectory = dataDirectory;
+            return this;
+        }
+
+        /**
+         * Format used for the snapshot file. When switching to BINARY, an existing
+         * JSON file is loaded once and replaced by the binary file on the next save.
+         */
+        public Options setSnapshotFormat(SnapshotFormat snapshotFormat) {
+            this.snapshotFormat = snapshotFormat;
+            return this;
+        }
+
+        /**
+         * In journaled mode each mutation appends a compact record to a log
+         * instead of rewriting the whole data file.
+         */
+        public Options setJournaled(boolean journaled) {
+            this.journaled = journaled;
+            return this;
         }
 
-        public List<Course> getCourses() {
-            return courses;
+        /**
+         * Number of journal records after which the log is folded into a new snapshot.
+         */
+        public Options setCompactionThreshold(int compactionThreshold) {
+            this.compactionThreshold = Math.max(1, compactionThreshold);
+            return this;
         }
 
-        public void setCourses(List<Course> courses) {
+        /**
+         * Enables write-behind: mutations only mark the data dirty, and a background
+         * thread writes one snapshot once no mutation has happened for the quiet period,
+         * or once the max delay since the first unflushed mutation has passed.
+         */
+        public Options setWriteBehind(Duration quietPeriod, Duration maxDelay) {
+            this.writeBehindQuietPeriod = quietPeriod;
+            this.writeBehindMaxDelay = maxDelay != null ? maxDelay : quietPeriod;
+            return this;
+        }
+    }
+
+    /**
+     * Write-behind metrics; latencies are in milliseconds.
+     */
+    public record WriteStats(long mutations, long flushes, double coalescingRatio,
+                             double averageFlushLatencyMillis, double maxFlushLatencyMillis) {
+    }
+
+    /**
+     * Immutable, versioned view of the repository contents. The Course and Assignment
+     * instances it holds are private to the snapshot, so every accessor hands out copies
+     * that callers are free to modify; changes only take effect through a repository write.
+     */
+    public static final class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(0, OverlayMap.empty(), OverlayMap.empty());
+
+        private final long version;
+        private final OverlayMap<String, Course> courses;
+        private final OverlayMap<String, Assignment> assignmentsById;
+
+        private Snapshot(long version, OverlayMap<String, Course> courses,
+                         OverlayMap<String, Assignment> assignmentsById) {
+            this.version = version;
             this.courses = courses;
+            this.assignmentsById = assignmentsById;
+        }
+
+        /**
+         * @return Number of writes published before this snapshot, starting at 1 for the initial load
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        public List<Course> getAllCourses() {
+            List<Course> result = new ArrayList<>(courses.size());
+            for (Course course : courses.values()) {
+                result.add(new Course(course));
+            }
+            return result;
+        }
+
+        public Optional<Course> getCourseById(String id) {
+            return Optional.ofNullable(courses.get(id)).map(Course::new);
+        }
+
+        public Optional<Assignment> getAssignmentById(String assignmentId) {
+            return Optional.ofNullable(assignmentsById.get(assignmentId)).map(Assignment::new);
+        }
+
+        public List<Assignment> findAssignments(AssignmentQuery query) {
+            List<Assignment> matches = query.apply(courses.values().stream()
+                    .flatMap(c -> c.getAssignments().stream()));
+            List<Assignment> result = new ArrayList<>(matches.size());
+            for (Assignment assignment : matches) {
+                result.add(new Assignment(assignment));
+            }
+            return result;
+        }
+
+        public int getCourseCount() {
+            return courses.size();
+        }
+
+        public int getAssignmentCount() {
+            return assignmentsById.size();
+        }
+    }
+
+    /**
+     * Mutable working copy of a snapshot. The maps share their contents with the snapshot
+     * the builder started from (see {@link OverlayMap}), and a course is only copied the
+     * first time it is modified, so a single write costs far less than copying everything.
+     */
+    private static final class SnapshotBuilder {
+        private final OverlayMap.Editor<String, Course> courses;
+        private final OverlayMap.Editor<String, Assignment> assignmentsById;
+        private final Set<String> ownedCourseIds = new HashSet<>();
+
+        SnapshotBuilder(Snapshot base) {
+            this.courses = base.courses.edit();
+            this.assignmentsById = base.assignmentsById.edit();
+        }
+
+        Snapshot build(long version) {
+            return new Snapshot(version, courses.build(), assignmentsById.build());
+        }
+
+        void replay(DataJournal.Entry entry) {
+            switch (entry.operation()) {
+                case PUT_COURSE -> adoptCourse(entry.course());
+                case DELETE_COURSE -> removeCourse(entry.courseId());
+                case PUT_ASSIGNMENT -> putAssignment(entry.assignment(), true);
+                case DELETE_ASSIGNMENT -> removeAssignment(entry.courseId(), entry.assignmentId());
+            }
+        }
+
+        /**
+         * Stores a copy of the course, keeping its position if it already exists.
+         */
+        void putCourse(Course course) {
+            adoptCourse(new Course(course));
+        }
+
+        /**
+         * Stores the course itself rather than a copy; for instances nobody else
+         * holds, such as courses freshly read from disk.
+         */
+        void adoptCourse(Course stored) {
+            if (stored.getAssignments() == null) {
+                stored.setAssignments(new ArrayList<>());
+            }
+            unindexAssignments(courses.get(stored.getId()));
+            markStored(stored);
+            courses.put(stored.getId(), stored);
+            ownedCourseIds.add(stored.getId());
+            for (Assignment assignment : stored.getAssignments()) {
+                assignment.setCourseId(stored.getId());
+                assignmentsById.put(assignment.getId(), assignment);
+            }
+        }
+
+        /**
+         * Replaces the course fields if they changed and stores the new and changed
+         * assignments of the course, keeping the stored ones it does not carry.
+         * @return The stored course, or null if there was nothing to write
+         * @throws OptimisticLockException if a stored assignment of the course is gone
+         */
+        Course updateCourse(Course course) {
+            List<Assignment> assignments = course.getAssignments() != null ? course.getAssignments() : List.of();
+            if (!course.isDirty() && assignments.stream().noneMatch(Assignment::isDirty)) {
+                return null;
+            }
+            List<Assignment> changed = new ArrayList<>();
+            for (Assignment assignment : assignments) {
+                if (isStoredIn(course.getId(), assignment.getId())) {
+                    if (assignment.isDirty()) {
+                        changed.add(assignment);
+                    }
+                } else if (assignment.isNew()) {
+                    changed.add(assignment);
+                } else {
+                    // It was stored before, so it was deleted in the meantime
+                    throw new OptimisticLockException("assignment", assignment.getId(), assignment.getVersion(), -1);
+                }
+            }
+
+            Course stored = ownedCourse(course.getId());
+            if (course.isDirty()) {
+                Course updated = new Course(course);
+                updated.setAssignments(stored.getAssignments());
+                markStored(updated);
+                courses.put(updated.getId(), updated);
+                stored = updated;
+            }
+            for (Assignment assignment : changed) {
+                Assignment copy = new Assignment(assignment);
+                copy.setCourseId(stored.getId());
+                putAssignment(copy, true);
+            }
+            return stored;
+        }
+
+        private boolean isStoredIn(String courseId, String assignmentId) {
+            Assignment existing = assignmentsById.get(assignmentId);
+            return existing != null && courseId.equals(existing.getCourseId());
+        }
+
+        void removeCourse(String courseId) {
+            unindexAssignments(courses.remove(courseId));
+        }
+
+        /**
+         * Stores a copy of the assignment in its course, replacing the existing one,
+         * or appends it when {@code addIfMissing} is set.
+         * @return true if the owning course exists and the assignment was stored
+         */
+        boolean putAssignment(Assignment assignment, boolean addIfMissing) {
+            String courseId = assignment.getCourseId();
+            if (courseId == null || !courses.containsKey(courseId)) {
+                return false;
+            }
+
+            Assignment existing = assignmentsById.get(assignment.getId());
+            boolean exists = existing != null && courseId.equals(existing.getCourseId());
+            if (!exists && !addIfMissing) {
+                return false;
+            }
+            if (existing != null && !exists) {
+                // Moved from another course
+                removeAssignment(existing.getCourseId(), existing.getId());
+            }
+
+            Assignment stored = new Assignment(assignment);
+            markStored(stored);
+            List<Assignment> assignments = ownedCourse(courseId).getAssignments();
+            if (exists) {
+                for (int i = 0; i < assignments.size(); i++) {
+                    if (assignments.get(i).getId().equals(stored.getId())) {
+                        assignments.set(i, stored);
+                        break;
+                    }
+                }
+            } else {
+                assignments.add(stored);
+            }
+            assignmentsById.put(stored.getId(), stored);
+            return true;
+        }
+
+        boolean removeAssignment(String courseId, String assignmentId) {
+            Assignment existing = assignmentsById.get(assignmentId);
+            if (existing == null || !existing.getCourseId().equals(courseId)) {
+                return false;
+            }
+            ownedCourse(courseId).getAssignments().removeIf(a -> a.getId().equals(assignmentId));
+            assignmentsById.remove(assignmentId);
+            return true;
+        }
+
+        private Course ownedCourse(String courseId) {
+            Course course = courses.get(courseId);
+            if (ownedCourseIds.add(courseId)) {
+                course = new Course(course);
+                courses.put(courseId, course);
+            }
+            return course;
+        }
+
+        private void unindexAssignments(Course course) {
+            if (course != null) {
+                for (Assignment assignment : course.getAssignments()) {
+                    assignmentsById.remove(assignment.getId());
+                }
+            }
         }
     }
 }
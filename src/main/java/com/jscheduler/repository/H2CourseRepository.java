@@ -0,0 +1,19 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.config.DatabaseConfig;
+
+/**
+ * Embedded H2 implementation of the CourseRepository interface.
+ * Runs in-process in MySQL compatibility mode with the same schema and queries as
+ * MySQLCourseRepository, so it works without a database server (local use, CI, benchmarks).
+ */
+public class H2CourseRepository extends JdbcCourseRepository {
+
+    public H2CourseRepository() {
+        this(DatabaseConfig.getInstance());
+    }
+
+    public H2CourseRepository(DatabaseConfig dbConfig) {
+        super(dbConfig, "");
+    }
+}
@@ -0,0 +1,1337 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.config.DatabaseConfig;
+import com.jscheduler.config.DatabaseConfig.IdStorage;
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.AssignmentStatus;
+import com.jscheduler.model.AssignmentSummary;
+import com.jscheduler.model.Course;
+import com.jscheduler.model.Semester;
+import com.jscheduler.util.IdGenerator;
+
+import java.sql.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * JDBC implementation of the CourseRepository interface shared by the SQL backends.
+ * Manages course and assignment data with proper transaction handling; subclasses
+ * only supply the connection settings and dialect-specific table options.
+ */
+public abstract class JdbcCourseRepository implements CourseRepository, ChangeFeedRepository {
+
+    // Keeps IN-lists well below MySQL's placeholder and packet limits
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
+    private static final int COURSE_PAGE_SIZE = 200;
+
+    // Change sets overlap by this much: timestamps have second precision and transactions
+    // may commit after stamping a row
+    private static final Duration WATERMARK_OVERLAP = Duration.ofSeconds(5);
+    private static final Duration TOMBSTONE_RETENTION = Duration.ofDays(7);
+
+    private static final String INSERT_COURSE_SQL = """
+        INSERT INTO courses (id, name, code, description, professor,
+                            semester_season, semester_year, version)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String INSERT_ASSIGNMENT_SQL = """
+        INSERT INTO assignments
+        (id, course_id, title, description, due_date, submission_deadline,
+         status, notes, created_at, updated_at, version)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, COALESCE(?, CURRENT_TIMESTAMP), ?)
+        """;
+
+    protected final DatabaseConfig dbConfig;
+    private final IdStorage idStorage;
+
+    /**
+     * @param tableOptions Clause appended to each CREATE TABLE, e.g. the storage engine
+     */
+    protected JdbcCourseRepository(DatabaseConfig dbConfig, String tableOptions) {
+        this.dbConfig = dbConfig;
+        this.idStorage = initializeSchema(tableOptions);
+    }
+
+    /**
+     * Creates database tables if they don't exist.
+     * @return How IDs are stored in the tables, which for existing tables may differ
+     *         from the configured {@code db.idStorage}
+     */
+    private IdStorage initializeSchema(String tableOptions) {
+        IdStorage storage;
+        try (Connection conn = dbConfig.getConnection()) {
+            storage = detectIdStorage(conn);
+            conn.commit();
+        } catch (SQLException e) {
+            System.err.println("Failed to initialize schema: " + e.getMessage());
+            throw new RuntimeException("Database initialization failed", e);
+        }
+        if (storage != dbConfig.getIdStorage()) {
+            System.out.println("Note: existing tables store IDs as " + storage +
+                ", not the configured db.idStorage " + dbConfig.getIdStorage() +
+                "; run IdStorageMigration to convert them");
+        }
+        String idType = storage == IdStorage.BINARY ? "BINARY(16)" : "VARCHAR(36)";
+
+        String createCoursesTable = """
+            CREATE TABLE IF NOT EXISTS courses (
+                id %1$s PRIMARY KEY,
+                name VARCHAR(255) NOT NULL,
+                code VARCHAR(50) NOT NULL,
+                description TEXT,
+                professor VARCHAR(255),
+                semester_season VARCHAR(20),
+                semester_year INT,
+                version BIGINT NOT NULL DEFAULT 0,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                INDEX idx_semester (semester_season, semester_year),
+                INDEX idx_code (code),
+                INDEX idx_name (name)
+            ) %2$s
+            """.formatted(idType, tableOptions);
+
+        String createAssignmentsTable = """
+            CREATE TABLE IF NOT EXISTS assignments (
+                id %1$s PRIMARY KEY,
+                course_id %1$s NOT NULL,
+                title VARCHAR(255) NOT NULL,
+                description TEXT,
+                due_date DATETIME NOT NULL,
+                submission_deadline DATETIME,
+                status VARCHAR(20) NOT NULL,
+                notes TEXT,
+                version BIGINT NOT NULL DEFAULT 0,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                FOREIGN KEY (course_id) REFERENCES courses(id) ON DELETE CASCADE,
+                INDEX idx_course_id (course_id),
+                INDEX idx_due_date (due_date),
+                INDEX idx_status (status),
+                INDEX idx_course_status (course_id, status)
+            ) %2$s
+            """.formatted(idType, tableOptions);
+
+        // Tombstones for the change feed, kept for TOMBSTONE_RETENTION; IDs are always text
+        String createDeletedRecordsTable = """
+            CREATE TABLE IF NOT EXISTS deleted_records (
+                tombstone_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                table_name VARCHAR(20) NOT NULL,
+                record_id VARCHAR(36) NOT NULL,
+                course_id VARCHAR(36) NOT NULL,
+                deleted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                INDEX idx_deleted_at (deleted_at)
+            ) %s
+            """.formatted(tableOptions);
+
+        try (Connection conn = dbConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            stmt.execute(createCoursesTable);
+            stmt.execute(createAssignmentsTable);
+            stmt.execute(createDeletedRecordsTable);
+            // Added after the first schema version, so created separately for existing tables
+            ensureColumn(conn, "courses", "version", "BIGINT NOT NULL DEFAULT 0");
+            ensureColumn(conn, "assignments", "version", "BIGINT NOT NULL DEFAULT 0");
+            // Rows inserted before versions started at 1; updated_at is kept, not bumped
+            stmt.executeUpdate("UPDATE courses SET version = 1, updated_at = updated_at WHERE version = 0");
+            stmt.executeUpdate("UPDATE assignments SET version = 1, updated_at = updated_at WHERE version = 0");
+            ensureIndex(conn, "courses", "idx_courses_updated_at", "updated_at");
+            ensureIndex(conn, "assignments", "idx_assignments_updated_at", "updated_at");
+            purgeTombstones(conn);
+            conn.commit();
+            System.out.println("Database schema initialized successfully");
+
+        } catch (SQLException e) {
+            System.err.println("Failed to initialize schema: " + e.getMessage());
+            throw new RuntimeException("Database initialization failed", e);
+        }
+        return storage;
+    }
+
+    /**
+     * Reads the ID column type of an existing courses table, or returns the configured
+     * storage if there is none yet.
+     */
+    private IdStorage detectIdStorage(Connection conn) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        for (String table : List.of("courses", "COURSES")) {
+            try (ResultSet rs = metaData.getColumns(null, null, table, null)) {
+                while (rs.next()) {
+                    if (rs.getString("COLUMN_NAME").equalsIgnoreCase("id")) {
+                        int type = rs.getInt("DATA_TYPE");
+                        return type == Types.BINARY || type == Types.VARBINARY ?
+                            IdStorage.BINARY : IdStorage.TEXT;
+                    }
+                }
+            }
+        }
+        return dbConfig.getIdStorage();
+    }
+
+    /**
+     * Drops the course and assignment tables, so the next repository created on this
+     * database recreates them with the configured ID storage. Tombstones are kept.
+     */
+    public void dropTables() {
+        try (Connection conn = dbConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            stmt.execute("DROP TABLE IF EXISTS assignments");
+            stmt.execute("DROP TABLE IF EXISTS courses");
+            conn.commit();
+
+        } catch (SQLException e) {
+            System.err.println("Failed to drop tables: " + e.getMessage());
+            throw new RuntimeException("Failed to drop tables", e);
+        }
+    }
+
+    /**
+     * @return How this repository stores course and assignment IDs
+     */
+    public IdStorage getIdStorage() {
+        return idStorage;
+    }
+
+    @Override
+    public List<Course> getAllCourses() {
+        List<Course> courses = new ArrayList<>();
+        String sql = "SELECT * FROM courses ORDER BY semester_year DESC, semester_season";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                courses.add(mapResultSetToCourse(rs));
+            }
+            loadAllAssignments(courses, conn);
+            conn.commit();
+
+        } catch (SQLException e) {
+            System.err.println("Failed to get all courses: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return courses;
+    }
+
+    /**
+     * Streams all courses in ID order, {@value #COURSE_PAGE_SIZE} at a time, using keyset
+     * pagination so memory use stays flat however large the tables are. Each page is read
+     * in its own short transaction, so the stream is not a point-in-time view.
+     */
+    @Override
+    public Stream<Course> streamCourses() {
+        List<Course> firstPage = loadCoursePage(null);
+        return Stream.iterate(firstPage, page -> !page.isEmpty(),
+                page -> page.size() < COURSE_PAGE_SIZE ? List.of() :
+                    loadCoursePage(page.get(page.size() - 1).getId()))
+            .flatMap(List::stream);
+    }
+
+    private List<Course> loadCoursePage(String afterId) {
+        List<Course> courses = new ArrayList<>();
+        String sql = afterId == null ?
+            "SELECT * FROM courses ORDER BY id LIMIT ?" :
+            "SELECT * FROM courses WHERE id > ? ORDER BY id LIMIT ?";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            if (afterId != null) {
+                setId(stmt, index++, afterId);
+            }
+            stmt.setInt(index, COURSE_PAGE_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    courses.add(mapResultSetToCourse(rs));
+                }
+            }
+            loadAssignmentsForCourses(courses, conn);
+            conn.commit();
+
+        } catch (SQLException e) {
+            System.err.println("Failed to stream courses: " + e.getMessage());
+            throw new RuntimeException("Failed to stream courses", e);
+        }
+
+        return courses;
+    }
+
+    @Override
+    public Optional<Course> getCourseById(String id) {
+        String sql = "SELECT * FROM courses WHERE id = ?";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            setId(stmt, 1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Course course = mapResultSetToCourse(rs);
+                    loadAssignmentsForCourses(List.of(course), conn);
+                    conn.commit();
+                    return Optional.of(course);
+                }
+            }
+            conn.commit();
+
+        } catch (SQLException e) {
+            System.err.println("Failed to get course by id: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Assignment> getAssignmentById(String assignmentId) {
+        String sql = "SELECT * FROM assignments WHERE id = ?";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            setId(stmt, 1, assignmentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                Optional<Assignment> assignment = rs.next() ?
+                    Optional.of(mapResultSetToAssignment(rs)) : Optional.empty();
+                conn.commit();
+                return assignment;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Failed to get assignment by id: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Assignment> findAssignments(AssignmentQuery query) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT * FROM assignments" + buildWhereClause(query, params) +
+            buildOrderAndLimit(query, params);
+
+        List<Assignment> assignments = new ArrayList<>();
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindParameters(stmt, params);
+            if (query.hasLimit()) {
+                stmt.setFetchSize(query.getLimit());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    assignments.add(mapResultSetToAssignment(rs));
+                }
+            }
+            conn.commit();
+
+        } catch (SQLException e) {
+            System.err.println("Failed to query assignments: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return assignments;
+    }
+
+    @Override
+    public List<AssignmentSummary> findAssignmentSummaries(AssignmentQuery query) {
+        // Skips the description and notes TEXT columns, which list views never show
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT id, course_id, title, due_date, status FROM assignments" +
+            buildWhereClause(query, params) + buildOrderAndLimit(query, params);
+
+        List<AssignmentSummary> summaries = new ArrayList<>();
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            bindParameters(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    summaries.add(mapResultSetToSummary(rs));
+                }
+            }
+            conn.commit();
+
+        } catch (SQLException e) {
+            System.err.println("Failed to query assignment summaries: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return summaries;
+    }
+
+    @Override
+    public Stream<Assignment> streamAssignments(AssignmentQuery query, int pageSize) {
+        return AssignmentPageIterator.stream(this, query, pageSize);
+    }
+
+    @Override
+    public void addCourse(Course course) {
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_COURSE_SQL)) {
+
+            bindCourseInsert(stmt, course);
+            stmt.executeUpdate();
+
+            // Insert assignments if present
+            insertAssignments(course.getAssignments(), false, conn);
+
+            conn.commit();
+            markStored(course);
+
+        } catch (SQLException e) {
+            System.err.println("Failed to add course: " + e.getMessage());
+            e.printStackTrace();
+            throw new RuntimeException("Failed to add course", e);
+        }
+    }
+
+    /**
+     * Updates the changed columns of the course row if no one else changed it since it was
+     * read, then writes its assignments: new ones are inserted and changed ones updated
+     * under the same version check. Rows without changes are not written at all, so their
+     * versions stay as they are. Assignments missing from the course are left alone, since
+     * another client may have just added them; they are removed with {@link #deleteAssignment}.
+     * On success the versions of the written rows are advanced and everything is marked clean.
+     * @throws OptimisticLockException if the course or one of its assignments was changed
+     *         or deleted by another client; nothing is written in that case
+     */
+    @Override
+    public void updateCourse(Course course) {
+        List<Assignment> assignments = course.getAssignments() != null ? course.getAssignments() : List.of();
+        if (!course.isDirty() && assignments.stream().noneMatch(Assignment::isDirty)) {
+            return;
+        }
+
+        List<Assignment> updated = new ArrayList<>();
+        List<Assignment> inserted = new ArrayList<>();
+        Connection conn = null;
+        try {
+            conn = dbConfig.getConnection();
+            if (course.isDirty() && updateCourseRow(course, conn) == 0) {
+                throw conflict(conn, "course", course.getId(), course.getVersion());
+            }
+
+            // Sync assignments row by row, each under its own version check
+            Set<String> storedIds = loadAssignmentIds(course.getId(), conn);
+            for (Assignment assignment : assignments) {
+                if (storedIds.contains(assignment.getId())) {
+                    if (!assignment.isDirty()) {
+                        continue;
+                    }
+                    if (updateAssignmentRow(assignment, conn) == 0) {
+                        throw conflict(conn, "assignment", assignment.getId(), assignment.getVersion());
+                    }
+                    updated.add(assignment);
+                } else if (assignment.isNew()) {
+                    inserted.add(assignment);
+                } else {
+                    // It was stored before, so someone deleted it in the meantime
+                    throw new OptimisticLockException("assignment", assignment.getId(), assignment.getVersion(), -1);
+                }
+            }
+            insertAssignments(inserted, false, conn);
+
+            conn.commit();
+
+        } catch (OptimisticLockException e) {
+            rollback(conn);
+            throw e;
+        } catch (SQLException e) {
+            System.err.println("Failed to update course: " + e.getMessage());
+            e.printStackTrace();
+            rollback(conn);
+            throw new RuntimeException("Failed to update course", e);
+        } finally {
+            closeConnection(conn);
+        }
+
+        if (course.isDirty()) {
+            course.setVersion(course.getVersion() + 1);
+            course.markClean();
+        }
+        for (Assignment assignment : updated) {
+            assignment.setVersion(assignment.getVersion() + 1);
+            assignment.markClean();
+        }
+        inserted.forEach(this::markStored);
+    }
+
+    @Override
+    public void deleteCourse(String courseId) {
+        String sql = "DELETE FROM courses WHERE id = ?";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            setId(stmt, 1, courseId);
+            if (stmt.executeUpdate() > 0) {
+                insertTombstone(conn, "courses", courseId, courseId);
+            }
+            conn.commit();
+            // Assignments auto-deleted via CASCADE; the course tombstone covers them
+
+        } catch (SQLException e) {
+            System.err.println("Failed to delete course: " + e.getMessage());
+            e.printStackTrace();
+            throw new RuntimeException("Failed to delete course", e);
+        }
+    }
+
+    @Override
+    public void addAssignment(Assignment assignment) {
+        try (Connection conn = dbConfig.getConnection()) {
+            insertAssignment(assignment, conn);
+            conn.commit();
+            markStored(assignment);
+
+        } catch (SQLException e) {
+            System.err.println("Failed to add assignment: " + e.getMessage());
+            e.printStackTrace();
+            throw new RuntimeException("Failed to add assignment", e);
+        }
+    }
+
+    /**
+     * Updates the changed columns of the assignment if no one else changed it since it was
+     * read, then advances its version and marks it clean. Does nothing if no field changed.
+     * @throws OptimisticLockException if it was changed or deleted by another client
+     */
+    @Override
+    public void updateAssignment(Assignment assignment) {
+        if (!assignment.isDirty()) {
+            return;
+        }
+
+        Connection conn = null;
+        try {
+            conn = dbConfig.getConnection();
+            if (updateAssignmentRow(assignment, conn) == 0) {
+                throw conflict(conn, "assignment", assignment.getId(), assignment.getVersion());
+            }
+            conn.commit();
+
+        } catch (OptimisticLockException e) {
+            rollback(conn);
+            throw e;
+        } catch (SQLException e) {
+            System.err.println("Failed to update assignment: " + e.getMessage());
+            e.printStackTrace();
+            rollback(conn);
+            throw new RuntimeException("Failed to update assignment", e);
+        } finally {
+            closeConnection(conn);
+        }
+
+        assignment.setVersion(assignment.getVersion() + 1);
+        assignment.markClean();
+    }
+
+    @Override
+    public void deleteAssignment(String courseId, String assignmentId) {
+        String sql = "DELETE FROM assignments WHERE id = ? AND course_id = ?";
+
+        try (Connection conn = dbConfig.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            setId(stmt, 1, assignmentId);
+            setId(stmt, 2, courseId);
+            if (stmt.executeUpdate() > 0) {
+                insertTombstone(conn, "assignments", assignmentId, courseId);
+            }
+            conn.commit();
+
+        } catch (SQLException e) {
+            System.err.println("Failed to delete assignment: " + e.getMessage());
+            e.printStackTrace();
+            throw new RuntimeException("Failed to delete assignment", e);
+        }
+    }
+
+    /**
+     * Inserts courses and all their assignments in one transaction, using JDBC batches.
+     */
+    @Override
+    public void addCourses(List<Course> courses) {
+        writeCourses(courses, false, false);
+    }
+
+    /**
+     * Like {@link #addCourses}, but assignments keep their {@code updatedAt} instead of
+     * being stamped with the database clock.
+     */
+    @Override
+    public void importCourses(List<Course> courses) {
+        writeCourses(courses, false, true);
+    }
+
+    /**
+     * Like {@link #importCourses}, but first deletes any course with the same ID in the same
+     * transaction, so re-running a partially applied batch does not fail on duplicates.
+     */
+    public void replaceCourses(List<Course> courses) {
+        writeCourses(courses, true, true);
+    }
+
+    /**
+     * Deletes every course and assignment.
+     */
+    public void deleteAllCourses() {
+        try (Connection conn = dbConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            // Tombstones keep IDs as text, so they are copied through Java rather than INSERT ... SELECT
+            List<String> courseIds = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery("SELECT id FROM courses")) {
+                while (rs.next()) {
+                    courseIds.add(readId(rs, "id"));
+                }
+            }
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO deleted_records (table_name, record_id, course_id) VALUES ('courses', ?, ?)")) {
+                for (int i = 0; i < courseIds.size(); i++) {
+                    insert.setString(1, courseIds.get(i));
+                    insert.setString(2, courseIds.get(i));
+                    insert.addBatch();
+                    if ((i + 1) % dbConfig.getBatchSize() == 0 || i == courseIds.size() - 1) {
+                        insert.executeBatch();
+                    }
+                }
+            }
+            stmt.executeUpdate("DELETE FROM assignments");
+            stmt.executeUpdate("DELETE FROM courses");
+            conn.commit();
+
+        } catch (SQLException e) {
+            System.err.println("Failed to delete all courses: " + e.getMessage());
+            throw new RuntimeException("Failed to delete all courses", e);
+        }
+    }
+
+    public int countCourses() {
+        try (Connection conn = dbConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM courses")) {
+
+            rs.next();
+            return rs.getInt(1);
+
+        } catch (SQLException e) {
+            System.err.println("Failed to count courses: " + e.getMessage());
+            throw new RuntimeException("Failed to count courses", e);
+        }
+    }
+
+    /**
+     * Reads rows whose {@code updated_at} is at or after the watermark, plus tombstones
+     * recorded since then, in one transaction. The returned watermark is taken from the
+     * database clock, minus a few seconds of overlap.
+     */
+    @Override
+    public ChangeSet getChangesSince(Instant watermark) {
+        try (Connection conn = dbConfig.getConnection()) {
+            Instant serverNow = serverNow(conn);
+            Instant nextWatermark = serverNow.minus(WATERMARK_OVERLAP);
+            if (watermark.isBefore(serverNow.minus(TOMBSTONE_RETENTION))) {
+                conn.commit();
+                return ChangeSet.reset(nextWatermark);
+            }
+            Timestamp since = Timestamp.from(watermark);
+
+            List<Course> changedCourses = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT * FROM courses WHERE updated_at >= ?")) {
+                stmt.setTimestamp(1, since);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        changedCourses.add(mapResultSetToCourse(rs));
+                    }
+                }
+            }
+            loadAssignmentsForCourses(changedCourses, conn);
+            Set<String> changedCourseIds = new HashSet<>();
+            Set<String> presentAssignmentIds = new HashSet<>();
+            for (Course course : changedCourses) {
+                changedCourseIds.add(course.getId());
+                course.getAssignments().forEach(a -> presentAssignmentIds.add(a.getId()));
+            }
+
+            List<Assignment> changedAssignments = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT * FROM assignments WHERE updated_at >= ? ORDER BY due_date")) {
+                stmt.setTimestamp(1, since);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Assignment assignment = mapResultSetToAssignment(rs);
+                        presentAssignmentIds.add(assignment.getId());
+                        if (!changedCourseIds.contains(assignment.getCourseId())) {
+                            changedAssignments.add(assignment);
+                        }
+                    }
+                }
+            }
+
+            // A tombstone followed by a re-insert shows up as a changed row; the row wins
+            List<String> deletedCourseIds = new ArrayList<>();
+            List<ChangeSet.DeletedAssignment> deletedAssignments = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement("""
+                    SELECT DISTINCT table_name, record_id, course_id FROM deleted_records
+                    WHERE deleted_at >= ?
+                    """)) {
+                stmt.setTimestamp(1, since);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String recordId = rs.getString("record_id");
+                        if ("courses".equals(rs.getString("table_name"))) {
+                            if (!changedCourseIds.contains(recordId)) {
+                                deletedCourseIds.add(recordId);
+                            }
+                        } else if (!presentAssignmentIds.contains(recordId)) {
+                            deletedAssignments.add(
+                                new ChangeSet.DeletedAssignment(rs.getString("course_id"), recordId));
+                        }
+                    }
+                }
+            }
+            conn.commit();
+
+            return new ChangeSet(changedCourses, changedAssignments, deletedCourseIds,
+                deletedAssignments, nextWatermark, false);
+
+        } catch (SQLException e) {
+            System.err.println("Failed to get changes: " + e.getMessage());
+            throw new RuntimeException("Failed to get changes", e);
+        }
+    }
+
+    /**
+     * The database clock minus the same overlap {@link #getChangesSince} uses.
+     */
+    @Override
+    public Instant currentWatermark() {
+        try (Connection conn = dbConfig.getConnection()) {
+            return serverNow(conn).minus(WATERMARK_OVERLAP);
+        } catch (SQLException e) {
+            System.err.println("Failed to read database time: " + e.getMessage());
+            throw new RuntimeException("Failed to read database time", e);
+        }
+    }
+
+    private static Instant serverNow(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT CURRENT_TIMESTAMP")) {
+            rs.next();
+            return rs.getTimestamp(1).toInstant();
+        }
+    }
+
+    @Override
+    public void load() {
+        // No-op (connection pool handles initialization)
+    }
+
+    @Override
+    public void save() {
+        // No-op (data persisted immediately via transactions)
+    }
+
+    // ===== Helper Methods =====
+
+    private void markStored(Course course) {
+        course.setVersion(storedVersion(course.getVersion()));
+        course.markClean();
+        if (course.getAssignments() != null) {
+            course.getAssignments().forEach(this::markStored);
+        }
+    }
+
+    private void markStored(Assignment assignment) {
+        assignment.setVersion(storedVersion(assignment.getVersion()));
+        assignment.markClean();
+    }
+
+    /**
+     * Version 0 is reserved for rows that were never stored, so inserted rows start at 1
+     * and a row missing from the table can be told apart from one just being added.
+     */
+    private static long storedVersion(long version) {
+        return Math.max(version, 1);
+    }
+
+    private void setId(PreparedStatement stmt, int index, String id) throws SQLException {
+        if (idStorage == IdStorage.BINARY) {
+            stmt.setBytes(index, IdGenerator.toBytes(id));
+        } else {
+            stmt.setString(index, id);
+        }
+    }
+
+    /**
+     * @return The ID in its column form, for {@link #bindParameters}
+     */
+    private Object idParameter(String id) {
+        return idStorage == IdStorage.BINARY ? IdGenerator.toBytes(id) : id;
+    }
+
+    private String readId(ResultSet rs, String column) throws SQLException {
+        if (idStorage == IdStorage.BINARY) {
+            byte[] bytes = rs.getBytes(column);
+            return bytes != null ? IdGenerator.fromBytes(bytes) : null;
+        }
+        return rs.getString(column);
+    }
+
+    private Course mapResultSetToCourse(ResultSet rs) throws SQLException {
+        Course course = new Course();
+        course.setId(readId(rs, "id"));
+        course.setName(rs.getString("name"));
+        course.setCode(rs.getString("code"));
+        course.setDescription(rs.getString("description"));
+        course.setProfessor(rs.getString("professor"));
+        course.setVersion(rs.getLong("version"));
+
+        String season = rs.getString("semester_season");
+        int year = rs.getInt("semester_year");
+        if (season != null && !rs.wasNull()) {
+            course.setSemester(new Semester(
+                Semester.Season.valueOf(season), year));
+        }
+
+        course.markClean();
+        return course;
+    }
+
+    /**
+     * Hydrates the given courses with a single scan of the assignments table.
+     * Used when the courses cover (nearly) the whole table, where one scan is
+     * cheaper than any per-course or IN-list lookup.
+     */
+    private void loadAllAssignments(List<Course> courses, Connection conn)
+            throws SQLException {
+        String sql = "SELECT * FROM assignments ORDER BY due_date";
+
+        Map<String, List<Assignment>> byCourse = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            groupAssignmentsByCourse(rs, byCourse);
+        }
+        attachAssignments(courses, byCourse);
+    }
+
+    /**
+     * Hydrates the given courses with their assignments using one
+     * {@code IN (...)} query per chunk of courses instead of one query per course.
+     */
+    private void loadAssignmentsForCourses(List<Course> courses, Connection conn)
+            throws SQLException {
+        if (courses.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<Assignment>> byCourse = new HashMap<>();
+        for (int from = 0; from < courses.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Course> chunk = courses.subList(from,
+                Math.min(from + IN_CLAUSE_CHUNK_SIZE, courses.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            String sql = "SELECT * FROM assignments WHERE course_id IN (" + placeholders +
+                ") ORDER BY due_date";
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    setId(stmt, i + 1, chunk.get(i).getId());
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    groupAssignmentsByCourse(rs, byCourse);
+                }
+            }
+        }
+
+        attachAssignments(courses, byCourse);
+    }
+
+    private void attachAssignments(List<Course> courses, Map<String, List<Assignment>> byCourse) {
+        for (Course course : courses) {
+            course.setAssignments(byCourse.getOrDefault(course.getId(), new ArrayList<>()));
+        }
+    }
+
+    private void groupAssignmentsByCourse(ResultSet rs, Map<String, List<Assignment>> byCourse)
+            throws SQLException {
+        while (rs.next()) {
+            Assignment assignment = mapResultSetToAssignment(rs);
+            byCourse.computeIfAbsent(assignment.getCourseId(), id -> new ArrayList<>())
+                .add(assignment);
+        }
+    }
+
+    /**
+     * Translates a query's filters into a WHERE clause over the indexed
+     * course_id, status and due_date columns, collecting bind values in order.
+     */
+    private String buildWhereClause(AssignmentQuery query, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+
+        if (query.getCourseId() != null) {
+            conditions.add("course_id = ?");
+            params.add(idParameter(query.getCourseId()));
+        }
+        if (query.getStatus() != null) {
+            conditions.add("status = ?");
+            params.add(query.getStatus().name());
+        }
+        if (query.getExcludedStatus() != null) {
+            conditions.add("status <> ?");
+            params.add(query.getExcludedStatus().name());
+        }
+        if (query.getDueFrom() != null) {
+            conditions.add("due_date >= ?");
+            params.add(Timestamp.valueOf(query.getDueFrom()));
+        }
+        if (query.getDueTo() != null) {
+            conditions.add("due_date <= ?");
+            params.add(Timestamp.valueOf(query.getDueTo()));
+        }
+        if (query.getDueAfter() != null) {
+            conditions.add("due_date > ?");
+            params.add(Timestamp.valueOf(query.getDueAfter()));
+        }
+        if (query.getDueBefore() != null) {
+            conditions.add("due_date < ?");
+            params.add(Timestamp.valueOf(query.getDueBefore()));
+        }
+        if (query.hasKeyset() && query.getAfterDueDate() != null) {
+            // Keyset pagination; due_date is NOT NULL, so no trailing null section
+            conditions.add("(due_date > ? OR (due_date = ? AND id > ?))");
+            Timestamp afterDueDate = Timestamp.valueOf(query.getAfterDueDate());
+            params.add(afterDueDate);
+            params.add(afterDueDate);
+            params.add(idParameter(query.getAfterId()));
+        }
+
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private String buildOrderAndLimit(AssignmentQuery query, List<Object> params) {
+        StringBuilder clause = new StringBuilder();
+        if (query.getSortOrder() == AssignmentQuery.SortOrder.DUE_DATE) {
+            clause.append(" ORDER BY due_date, id");
+        }
+        if (query.hasLimit()) {
+            clause.append(" LIMIT ?");
+            params.add(query.getLimit());
+        }
+        return clause.toString();
+    }
+
+    private void bindParameters(PreparedStatement stmt, List<Object> params)
+            throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            Object param = params.get(i);
+            if (param instanceof Timestamp timestamp) {
+                stmt.setTimestamp(i + 1, timestamp);
+            } else if (param instanceof Integer value) {
+                stmt.setInt(i + 1, value);
+            } else if (param instanceof Long value) {
+                stmt.setLong(i + 1, value);
+            } else if (param instanceof byte[] bytes) {
+                stmt.setBytes(i + 1, bytes);
+            } else {
+                stmt.setString(i + 1, (String) param);
+            }
+        }
+    }
+
+    private Assignment mapResultSetToAssignment(ResultSet rs) throws SQLException {
+        Assignment assignment = new Assignment();
+        assignment.setId(readId(rs, "id"));
+        assignment.setCourseId(readId(rs, "course_id"));
+        assignment.setTitle(rs.getString("title"));
+        assignment.setDescription(rs.getString("description"));
+
+        Timestamp dueDate = rs.getTimestamp("due_date");
+        if (dueDate != null) {
+            assignment.setDueDate(dueDate.toLocalDateTime());
+        }
+
+        Timestamp submissionDeadline = rs.getTimestamp("submission_deadline");
+        if (submissionDeadline != null) {
+            assignment.setSubmissionDeadline(submissionDeadline.toLocalDateTime());
+        }
+
+        String status = rs.getString("status");
+        if (status != null) {
+            assignment.setStatus(AssignmentStatus.valueOf(status));
+        }
+
+        assignment.setNotes(rs.getString("notes"));
+
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) {
+            assignment.setCreatedAt(createdAt.toLocalDateTime());
+        }
+
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        if (updatedAt != null) {
+            assignment.setUpdatedAt(updatedAt.toLocalDateTime());
+        }
+
+        assignment.setVersion(rs.getLong("version"));
+        assignment.markClean();
+        return assignment;
+    }
+
+    private AssignmentSummary mapResultSetToSummary(ResultSet rs) throws SQLException {
+        Timestamp dueDate = rs.getTimestamp("due_date");
+        String status = rs.getString("status");
+        return new AssignmentSummary(
+            readId(rs, "id"),
+            readId(rs, "course_id"),
+            rs.getString("title"),
+            dueDate != null ? dueDate.toLocalDateTime() : null,
+            status != null ? AssignmentStatus.valueOf(status) : null);
+    }
+
+    private void insertAssignment(Assignment assignment, Connection conn)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_ASSIGNMENT_SQL)) {
+            bindAssignmentInsert(stmt, assignment, false);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Inserts assignments through one reused prepared statement, flushing a
+     * JDBC batch every {@link DatabaseConfig#getBatchSize()} rows.
+     */
+    private void writeCourses(List<Course> courses, boolean replaceExisting, boolean keepTimestamps) {
+        if (courses.isEmpty()) {
+            return;
+        }
+
+        Connection conn = null;
+        try {
+            conn = dbConfig.getConnection();
+            if (replaceExisting) {
+                deleteCoursesById(courses, conn);
+            }
+
+            int batchSize = Math.max(1, dbConfig.getBatchSize());
+            List<Assignment> assignments = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_COURSE_SQL)) {
+                int pending = 0;
+                for (Course course : courses) {
+                    bindCourseInsert(stmt, course);
+                    stmt.addBatch();
+                    if (++pending == batchSize) {
+                        stmt.executeBatch();
+                        pending = 0;
+                    }
+                    if (course.getAssignments() != null) {
+                        assignments.addAll(course.getAssignments());
+                    }
+                }
+                if (pending > 0) {
+                    stmt.executeBatch();
+                }
+            }
+            insertAssignments(assignments, keepTimestamps, conn);
+
+            conn.commit();
+            courses.forEach(this::markStored);
+
+        } catch (SQLException e) {
+            rollback(conn);
+            System.err.println("Failed to add courses: " + e.getMessage());
+            throw new RuntimeException("Failed to add courses", e);
+        } finally {
+            closeConnection(conn);
+        }
+    }
+
+    private void deleteCoursesById(List<Course> courses, Connection conn) throws SQLException {
+        for (int from = 0; from < courses.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Course> chunk = courses.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, courses.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            // Assignments first, so this does not depend on ON DELETE CASCADE
+            for (String table : List.of("assignments WHERE course_id", "courses WHERE id")) {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "DELETE FROM " + table + " IN (" + placeholders + ")")) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        setId(stmt, i + 1, chunk.get(i).getId());
+                    }
+                    stmt.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private void bindCourseInsert(PreparedStatement stmt, Course course) throws SQLException {
+        setId(stmt, 1, course.getId());
+        stmt.setString(2, course.getName());
+        stmt.setString(3, course.getCode());
+        stmt.setString(4, course.getDescription());
+        stmt.setString(5, course.getProfessor());
+
+        if (course.getSemester() != null) {
+            stmt.setString(6, course.getSemester().getSeason().name());
+            stmt.setInt(7, course.getSemester().getYear());
+        } else {
+            stmt.setNull(6, Types.VARCHAR);
+            stmt.setNull(7, Types.INTEGER);
+        }
+        stmt.setLong(8, storedVersion(course.getVersion()));
+    }
+
+    /**
+     * @param keepTimestamps Whether to store the assignments' own {@code updatedAt}, as an
+     *                       import does; otherwise the database clock stamps them, so the
+     *                       change feed sees the new rows
+     */
+    private void insertAssignments(List<Assignment> assignments, boolean keepTimestamps, Connection conn)
+            throws SQLException {
+        if (assignments == null || assignments.isEmpty()) {
+            return;
+        }
+
+        int batchSize = Math.max(1, dbConfig.getBatchSize());
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_ASSIGNMENT_SQL)) {
+            int pending = 0;
+            for (Assignment assignment : assignments) {
+                bindAssignmentInsert(stmt, assignment, keepTimestamps);
+                stmt.addBatch();
+                if (++pending == batchSize) {
+                    stmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    private void bindAssignmentInsert(PreparedStatement stmt, Assignment assignment, boolean keepTimestamps)
+            throws SQLException {
+        setId(stmt, 1, assignment.getId());
+        setId(stmt, 2, assignment.getCourseId());
+        stmt.setString(3, assignment.getTitle());
+        stmt.setString(4, assignment.getDescription());
+        stmt.setTimestamp(5, toTimestamp(assignment.getDueDate()));
+
+        if (assignment.getSubmissionDeadline() != null) {
+            stmt.setTimestamp(6, toTimestamp(
+                assignment.getSubmissionDeadline()));
+        } else {
+            stmt.setNull(6, Types.TIMESTAMP);
+        }
+
+        stmt.setString(7, assignment.getStatus().name());
+        stmt.setString(8, assignment.getNotes());
+
+        if (assignment.getCreatedAt() != null) {
+            stmt.setTimestamp(9, toTimestamp(assignment.getCreatedAt()));
+        } else {
+            stmt.setTimestamp(9, toTimestamp(LocalDateTime.now()));
+        }
+
+        // NULL falls back to the database clock
+        if (keepTimestamps && assignment.getUpdatedAt() != null) {
+            stmt.setTimestamp(10, toTimestamp(assignment.getUpdatedAt()));
+        } else {
+            stmt.setNull(10, Types.TIMESTAMP);
+        }
+        stmt.setLong(11, storedVersion(assignment.getVersion()));
+    }
+
+    /**
+     * Drops sub-second precision before binding, so every backend stores the same value
+     * (MySQL DATETIME would otherwise round it) and exports checksum the same across backends.
+     */
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return Timestamp.valueOf(value.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * Conditional update of the changed columns of one course row.
+     * @return Number of rows updated; 0 if the version no longer matches or the row is gone
+     */
+    private int updateCourseRow(Course course, Connection conn) throws SQLException {
+        int dirty = course.getDirtyFields();
+        Semester semester = course.getSemester();
+        StringBuilder set = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+        setIfDirty(set, params, dirty, Course.FIELD_NAME, "name", course.getName());
+        setIfDirty(set, params, dirty, Course.FIELD_CODE, "code", course.getCode());
+        setIfDirty(set, params, dirty, Course.FIELD_DESCRIPTION, "description", course.getDescription());
+        setIfDirty(set, params, dirty, Course.FIELD_PROFESSOR, "professor", course.getProfessor());
+        setIfDirty(set, params, dirty, Course.FIELD_SEMESTER, "semester_season",
+            semester != null ? semester.getSeason().name() : null);
+        setIfDirty(set, params, dirty, Course.FIELD_SEMESTER, "semester_year",
+            semester != null ? (Integer) semester.getYear() : null);
+
+        String sql = "UPDATE courses SET " + set +
+            "version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND version = ?";
+        params.add(idParameter(course.getId()));
+        params.add(course.getVersion());
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bindParameters(stmt, params);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Conditional update of the changed columns of one assignment row.
+     * @return Number of rows updated; 0 if the version no longer matches or the row is gone
+     */
+    private int updateAssignmentRow(Assignment assignment, Connection conn) throws SQLException {
+        int dirty = assignment.getDirtyFields();
+        StringBuilder set = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+        setIfDirty(set, params, dirty, Assignment.FIELD_TITLE, "title", assignment.getTitle());
+        setIfDirty(set, params, dirty, Assignment.FIELD_DESCRIPTION, "description", assignment.getDescription());
+        setIfDirty(set, params, dirty, Assignment.FIELD_DUE_DATE, "due_date",
+            toTimestamp(assignment.getDueDate()));
+        setIfDirty(set, params, dirty, Assignment.FIELD_SUBMISSION_DEADLINE, "submission_deadline",
+            assignment.getSubmissionDeadline() != null ? toTimestamp(assignment.getSubmissionDeadline()) : null);
+        setIfDirty(set, params, dirty, Assignment.FIELD_STATUS, "status", assignment.getStatus().name());
+        setIfDirty(set, params, dirty, Assignment.FIELD_NOTES, "notes", assignment.getNotes());
+
+        // created_at is deliberately left alone so edits keep the original creation time;
+        // updated_at comes from the database clock, which the change feed compares against
+        String sql = "UPDATE assignments SET " + set +
+            "updated_at = CURRENT_TIMESTAMP, version = version + 1 WHERE id = ? AND version = ?";
+        params.add(idParameter(assignment.getId()));
+        params.add(assignment.getVersion());
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bindParameters(stmt, params);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Appends {@code column = ?} to a SET clause if the field is among the dirty fields.
+     */
+    private static void setIfDirty(StringBuilder set, List<Object> params, int dirtyFields, int field,
+                                   String column, Object value) {
+        if ((dirtyFields & field) != 0) {
+            set.append(column).append(" = ?, ");
+            params.add(value);
+        }
+    }
+
+    private Set<String> loadAssignmentIds(String courseId, Connection conn) throws SQLException {
+        Set<String> ids = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT id FROM assignments WHERE course_id = ?")) {
+            setId(stmt, 1, courseId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(readId(rs, "id"));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Builds the exception for a conditional update that matched no row,
+     * telling a concurrent change apart from a delete.
+     */
+    private OptimisticLockException conflict(Connection conn, String entityType, String id, long expectedVersion)
+            throws SQLException {
+        String table = entityType.equals("course") ? "courses" : "assignments";
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT version FROM " + table + " WHERE id = ?")) {
+            setId(stmt, 1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return new OptimisticLockException(entityType, id, expectedVersion, rs.next() ? rs.getLong(1) : -1);
+            }
+        }
+    }
+
+    private void ensureColumn(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, table, column)) {
+            if (rs.next()) {
+                return;
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+
+    private void insertTombstone(Connection conn, String tableName, String recordId, String courseId)
+            throws SQLException {
+        String sql = "INSERT INTO deleted_records (table_name, record_id, course_id) VALUES (?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, tableName);
+            stmt.setString(2, recordId);
+            stmt.setString(3, courseId);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Deletes tombstones past the retention period, judged by the database clock like
+     * {@code deleted_at} itself.
+     */
+    private void purgeTombstones(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM deleted_records WHERE deleted_at < CURRENT_TIMESTAMP - INTERVAL '"
+                + TOMBSTONE_RETENTION.toDays() + "' DAY");
+        }
+    }
+
+    private void ensureIndex(Connection conn, String table, String indexName, String column)
+            throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, table, false, true)) {
+            while (rs.next()) {
+                if (indexName.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return;
+                }
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX " + indexName + " ON " + table + " (" + column + ")");
+        }
+    }
+
+    private void rollback(Connection conn) {
+        try {
+            if (conn != null) {
+                conn.rollback();
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to rollback transaction: " + e.getMessage());
+        }
+    }
+
+    private void closeConnection(Connection conn) {
+        try {
+            if (conn != null) {
+                conn.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to close connection: " + e.getMessage());
+        }
+    }
+}
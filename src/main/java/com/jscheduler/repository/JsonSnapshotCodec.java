@@ -0,0 +1,119 @@
+package com.jscheduler.repository;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.Course;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader and writer for the {@code {"courses": [...]}} data file.
+ * Courses are bound one at a time, so memory use is bounded by the largest course
+ * rather than by the whole file, and output is written compactly.
+ */
+public class JsonSnapshotCodec implements SnapshotCodec {
+
+    private static final String COURSES_FIELD = "courses";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JsonFactory jsonFactory;
+    private final ObjectReader courseReader;
+    private final ObjectWriter courseWriter;
+
+    public JsonSnapshotCodec() {
+        this(createObjectMapper());
+    }
+
+    JsonSnapshotCodec(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.courseReader = objectMapper.readerFor(Course.class);
+        this.courseWriter = objectMapper.writerFor(Course.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Mapper configured for the data file: ISO-8601 dates, unknown properties ignored.
+     */
+    static ObjectMapper createObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        // Derived getters such as Assignment.isOverdue() are written but have no setter
+        objectMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return objectMapper;
+    }
+
+    @Override
+    public void read(Path file, Consumer<Course> consumer) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+            read(in, consumer);
+        }
+    }
+
+    void read(InputStream in, Consumer<Course> consumer) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object at the start of the data file");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!COURSES_FIELD.equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    Course course = courseReader.readValue(parser);
+                    // The setters Jackson calls mark every field dirty
+                    course.markClean();
+                    if (course.getAssignments() != null) {
+                        course.getAssignments().forEach(Assignment::markClean);
+                    }
+                    consumer.accept(course);
+                }
+                if (parser.currentToken() != JsonToken.END_ARRAY) {
+                    throw new IOException("Unexpected token in courses array: " + parser.currentToken());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void write(Path file, Iterable<Course> courses) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE)) {
+            write(out, courses);
+        }
+    }
+
+    void write(OutputStream out, Iterable<Course> courses) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart(COURSES_FIELD);
+            for (Course course : courses) {
+                courseWriter.writeValue(generator, course);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+}
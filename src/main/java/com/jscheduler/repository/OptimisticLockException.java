@@ -0,0 +1,58 @@
+package com.jscheduler.repository;
+
+/**
+ * Thrown when an update finds that the row was changed or deleted by another client
+ * since it was read. Nothing from the failed call is written; the caller can reload
+ * the row and retry or merge its change.
+ */
+public class OptimisticLockException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String entityType;
+    private final String entityId;
+    private final long expectedVersion;
+    private final long actualVersion;
+
+    /**
+     * @param entityType "course" or "assignment"
+     * @param actualVersion Current version of the row, or -1 if it was deleted
+     */
+    public OptimisticLockException(String entityType, String entityId, long expectedVersion, long actualVersion) {
+        super(actualVersion < 0 ?
+            "%s %s was deleted by another client".formatted(capitalize(entityType), entityId) :
+            "%s %s was changed by another client (version %d, expected %d)".formatted(
+                capitalize(entityType), entityId, actualVersion, expectedVersion));
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    /**
+     * @return Current version of the row, or -1 if it was deleted
+     */
+    public long getActualVersion() {
+        return actualVersion;
+    }
+
+    public boolean isDeleted() {
+        return actualVersion < 0;
+    }
+
+    private static String capitalize(String value) {
+        return value.isEmpty() ? value : Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+}
@@ -0,0 +1,179 @@
+package com.jscheduler.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable map made of a base map shared between versions plus a small overlay of the
+ * entries changed since, so deriving a modified version copies only the overlay instead
+ * of every entry. Once the overlay outgrows about the square root of the base it is
+ * folded into a new base, which bounds both the copy per change and the folding work
+ * to amortized O(sqrt n).
+ *
+ * Values are listed in insertion order: replaced entries keep their position, removed
+ * and re-added ones move to the end, as in a LinkedHashMap. Null values are not allowed.
+ */
+final class OverlayMap<K, V> {
+
+    private static final int MIN_FOLD_SIZE = 32;
+
+    private static final OverlayMap<?, ?> EMPTY = new OverlayMap<>(Map.of(), new LinkedHashMap<>(), 0);
+
+    // Neither map is modified once the OverlayMap is built
+    private final Map<K, V> base;
+    // Changes on top of base; a null value removes a base entry
+    private final LinkedHashMap<K, V> overlay;
+    private final int size;
+
+    private OverlayMap(Map<K, V> base, LinkedHashMap<K, V> overlay, int size) {
+        this.base = base;
+        this.overlay = overlay;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> OverlayMap<K, V> empty() {
+        return (OverlayMap<K, V>) EMPTY;
+    }
+
+    V get(K key) {
+        V value = overlay.get(key);
+        if (value != null || overlay.containsKey(key)) {
+            return value;
+        }
+        return base.get(key);
+    }
+
+    boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return The values in insertion order; a new list on every call
+     */
+    List<V> values() {
+        List<V> values = new ArrayList<>(size);
+        forEach(base, overlay, (key, value) -> values.add(value));
+        return values;
+    }
+
+    /**
+     * Visits the entries of {@code base} with {@code overlay} applied, in insertion order.
+     */
+    private static <K, V> void forEach(Map<K, V> base, Map<K, V> overlay, BiConsumer<K, V> action) {
+        for (Map.Entry<K, V> entry : base.entrySet()) {
+            V value = overlay.containsKey(entry.getKey()) ? overlay.get(entry.getKey()) : entry.getValue();
+            if (value != null) {
+                action.accept(entry.getKey(), value);
+            }
+        }
+        for (Map.Entry<K, V> entry : overlay.entrySet()) {
+            if (entry.getValue() != null && !base.containsKey(entry.getKey())) {
+                action.accept(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return A working copy to derive the next version from; this map is not affected
+     */
+    Editor<K, V> edit() {
+        return new Editor<>(this);
+    }
+
+    /**
+     * Mutable working copy. Shares the base with the map it came from until it has to
+     * fold, and is not to be used after {@link #build()}.
+     */
+    static final class Editor<K, V> {
+        private Map<K, V> base;
+        private LinkedHashMap<K, V> overlay;
+        // True once base is a private copy that can be written directly
+        private boolean ownsBase;
+        private int size;
+
+        private Editor(OverlayMap<K, V> from) {
+            this.size = from.size;
+            if (from.size == 0) {
+                // Nothing to share: fill a private base, which is how bulk loads stay O(n)
+                this.base = new LinkedHashMap<>();
+                this.overlay = new LinkedHashMap<>();
+                this.ownsBase = true;
+            } else {
+                this.base = from.base;
+                this.overlay = new LinkedHashMap<>(from.overlay);
+            }
+        }
+
+        V get(K key) {
+            if (ownsBase) {
+                return base.get(key);
+            }
+            V value = overlay.get(key);
+            if (value != null || overlay.containsKey(key)) {
+                return value;
+            }
+            return base.get(key);
+        }
+
+        boolean containsKey(K key) {
+            return get(key) != null;
+        }
+
+        void put(K key, V value) {
+            if (!ownsBase && base.containsKey(key) && overlay.containsKey(key) && overlay.get(key) == null) {
+                // Re-adding a removed entry moves it to the end, which the overlay cannot express
+                fold();
+            }
+            if (!containsKey(key)) {
+                size++;
+            }
+            if (ownsBase) {
+                base.put(key, value);
+            } else {
+                overlay.put(key, value);
+            }
+        }
+
+        /**
+         * @return The removed value, or null if there was none
+         */
+        V remove(K key) {
+            V removed = get(key);
+            if (removed == null) {
+                return null;
+            }
+            size--;
+            if (ownsBase) {
+                base.remove(key);
+            } else if (base.containsKey(key)) {
+                overlay.put(key, null);
+            } else {
+                overlay.remove(key);
+            }
+            return removed;
+        }
+
+        OverlayMap<K, V> build() {
+            if (!ownsBase && overlay.size() > Math.max(MIN_FOLD_SIZE, (int) Math.sqrt(base.size()))) {
+                fold();
+            }
+            return new OverlayMap<>(base, overlay, size);
+        }
+
+        private void fold() {
+            LinkedHashMap<K, V> merged = new LinkedHashMap<>();
+            forEach(base, overlay, merged::put);
+            base = merged;
+            overlay = new LinkedHashMap<>();
+            ownsBase = true;
+        }
+    }
+}
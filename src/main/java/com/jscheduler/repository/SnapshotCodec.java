@@ -0,0 +1,28 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.model.Course;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Reads and writes the whole course model as a single snapshot file.
+ */
+public interface SnapshotCodec {
+
+    /**
+     * Codec for a snapshot file, chosen by extension: {@code .bin} is binary, anything else JSON.
+     */
+    static SnapshotCodec forFile(Path file) {
+        return file.getFileName().toString().endsWith(".bin") ?
+                new BinarySnapshotCodec() : new JsonSnapshotCodec();
+    }
+
+    /**
+     * Passes each course in the file to the consumer, in file order.
+     */
+    void read(Path file, Consumer<Course> consumer) throws IOException;
+
+    void write(Path file, Iterable<Course> courses) throws IOException;
+}
@@ -2,22 +2,70 @@ package com.jscheduler.service;
 
 import com.jscheduler.model.Assignment;
 import com.jscheduler.model.AssignmentStatus;
+import com.jscheduler.model.AssignmentSummary;
 import com.jscheduler.model.Course;
+import com.jscheduler.repository.AssignmentQuery;
+import com.jscheduler.repository.ChangeSet;
 import com.jscheduler.repository.CourseRepository;
+import com.jscheduler.repository.OptimisticLockException;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class AssignmentService {
 
+    private static final int MAX_CONFLICT_ATTEMPTS = 3;
+
     private final CourseRepository repository;
+    private final DueDateIndex dueDateIndex;
+    private final SearchIndex searchIndex;
+    private final List<ScheduleChangeListener> listeners = new CopyOnWriteArrayList<>();
 
     public AssignmentService(CourseRepository repository) {
         this.repository = repository;
+        this.dueDateIndex = new DueDateIndex(repository::streamCourses);
+        addChangeListener(dueDateIndex);
+        this.searchIndex = new SearchIndex(repository::streamCourses);
+        addChangeListener(searchIndex);
+    }
+
+    /**
+     * Index behind the due-date queries. It follows the changes made through this service;
+     * register it with {@link CourseService#addChangeListener} so it follows course changes too.
+     */
+    public DueDateIndex getDueDateIndex() {
+        return dueDateIndex;
+    }
+
+    /**
+     * Full-text index behind the searches. It follows the changes made through this
+     * service; {@link CourseService} registers it for course changes.
+     */
+    public SearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    public void addChangeListener(ScheduleChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Passes changes made by other clients, as reported by the change feed, to the listeners.
+     */
+    public void applyChanges(ChangeSet changes) {
+        listeners.forEach(listener -> listener.changesApplied(changes));
+    }
+
+    /**
+     * Tells the listeners that the repository was reloaded.
+     */
+    public void scheduleReloaded() {
+        listeners.forEach(ScheduleChangeListener::scheduleReloaded);
     }
 
     public List<Assignment> getAllAssignments() {
@@ -26,6 +74,14 @@ public class AssignmentService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Loads the whole schedule once and pins the current time, for screens that run
+     * several queries per refresh and need them to agree with each other.
+     */
+    public ScheduleSnapshot snapshot() {
+        return new ScheduleSnapshot(repository.getAllCourses(), LocalDateTime.now());
+    }
+
     public List<Assignment> getAssignmentsByCourse(String courseId) {
         return repository.getCourseById(courseId)
                 .map(Course::getAssignments)
@@ -33,92 +89,98 @@ public class AssignmentService {
     }
 
     public Optional<Assignment> getAssignmentById(String assignmentId) {
-        return getAllAssignments().stream()
-                .filter(a -> a.getId().equals(assignmentId))
-                .findFirst();
+        return repository.getAssignmentById(assignmentId);
     }
 
     public Assignment createAssignment(String courseId, String title, LocalDateTime dueDate,
                                        String description, String notes, AssignmentStatus status) {
-        Optional<Course> courseOpt = repository.getCourseById(courseId);
-        if (courseOpt.isPresent()) {
-            Course course = courseOpt.get();
+        if (repository.getCourseById(courseId).isPresent()) {
             Assignment assignment = new Assignment(title, dueDate);
+            assignment.setCourseId(courseId);
             assignment.setDescription(description);
             assignment.setNotes(notes);
             if (status != null) {
                 assignment.setStatus(status);
             }
-            course.addAssignment(assignment);
-            repository.updateCourse(course);
+            repository.addAssignment(assignment);
+            listeners.forEach(listener -> listener.assignmentSaved(assignment));
             return assignment;
         }
         throw new IllegalArgumentException("Course not found: " + courseId);
     }
 
-    public void updateAssignment(Assignment assignment) {
-        repository.getAllCourses().stream()
-                .filter(c -> c.getId().equals(assignment.getCourseId()))
-                .findFirst()
-                .ifPresent(course -> {
-                    List<Assignment> assignments = course.getAssignments();
-                    for (int i = 0; i < assignments.size(); i++) {
-                        if (assignments.get(i).getId().equals(assignment.getId())) {
-                            assignments.set(i, assignment);
-                            repository.updateCourse(course);
-                            return;
-                        }
-                    }
-                });
+    /**
+     * Applies a change to the current state of an assignment and saves it. If another
+     * client updates the assignment in between, the change is re-applied to a fresh copy.
+     * @return The saved assignment
+     * @throws OptimisticLockException if it was deleted, or still conflicts after a few attempts
+     */
+    public Assignment updateAssignment(String assignmentId, Consumer<Assignment> change) {
+        for (int attempt = 1; ; attempt++) {
+            Assignment current = repository.getAssignmentById(assignmentId)
+                    .map(Assignment::new)
+                    .orElseThrow(() -> new IllegalArgumentException("Assignment not found: " + assignmentId));
+            change.accept(current);
+            try {
+                repository.updateAssignment(current);
+                listeners.forEach(listener -> listener.assignmentSaved(current));
+                return current;
+            } catch (OptimisticLockException e) {
+                if (e.isDeleted() || attempt >= MAX_CONFLICT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
     }
 
     public void deleteAssignment(String courseId, String assignmentId) {
-        repository.getCourseById(courseId).ifPresent(course -> {
-            course.getAssignments().removeIf(a -> a.getId().equals(assignmentId));
-            repository.updateCourse(course);
-        });
+        repository.deleteAssignment(courseId, assignmentId);
+        listeners.forEach(listener -> listener.assignmentDeleted(courseId, assignmentId));
+    }
+
+    public List<Assignment> findAssignments(AssignmentQuery query) {
+        return repository.findAssignments(query);
+    }
+
+    /**
+     * Like {@link #findAssignments}, but evaluated against the in-memory due date index;
+     * best for queries bounded by due date. Results are in due date order.
+     */
+    public List<Assignment> findAssignmentsByDueDate(AssignmentQuery query) {
+        return dueDateIndex.find(query);
+    }
+
+    /**
+     * Returns list-view summaries for a query, without description or notes text.
+     */
+    public List<AssignmentSummary> getAssignmentSummaries(AssignmentQuery query) {
+        return repository.findAssignmentSummaries(query);
     }
 
     public List<Assignment> getAssignmentsByStatus(AssignmentStatus status) {
-        return getAllAssignments().stream()
-                .filter(a -> a.getStatus() == status)
-                .collect(Collectors.toList());
+        return repository.findAssignments(AssignmentQuery.byStatus(status));
     }
 
     public List<Assignment> getUpcomingAssignments(int daysAhead) {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime limit = now.plusDays(daysAhead);
-
-        return getAllAssignments().stream()
-                .filter(a -> a.getDueDate() != null)
-                .filter(a -> a.getDueDate().isAfter(now) && a.getDueDate().isBefore(limit))
-                .filter(a -> a.getStatus() != AssignmentStatus.SUBMITTED)
-                .sorted(Comparator.comparing(Assignment::getDueDate))
-                .collect(Collectors.toList());
+        return dueDateIndex.find(AssignmentQuery.upcoming(LocalDateTime.now(), daysAhead));
     }
 
     public List<Assignment> getOverdueAssignments() {
-        return getAllAssignments().stream()
-                .filter(Assignment::isOverdue)
-                .sorted(Comparator.comparing(Assignment::getDueDate))
-                .collect(Collectors.toList());
+        return dueDateIndex.find(AssignmentQuery.overdue(LocalDateTime.now()));
     }
 
+    /**
+     * Searches titles, descriptions and notes through the search index; see
+     * {@link SearchIndex} for the matching rules.
+     * @return Matching assignments, most relevant first
+     */
     public List<Assignment> searchAssignments(String query) {
-        String lowerQuery = query.toLowerCase();
-        return getAllAssignments().stream()
-                .filter(a ->
-                    (a.getTitle() != null && a.getTitle().toLowerCase().contains(lowerQuery)) ||
-                    (a.getDescription() != null && a.getDescription().toLowerCase().contains(lowerQuery)) ||
-                    (a.getNotes() != null && a.getNotes().toLowerCase().contains(lowerQuery)))
+        return searchIndex.search(query, SearchIndex.Type.ASSIGNMENT, Integer.MAX_VALUE).stream()
+                .map(SearchIndex.Hit::assignment)
                 .collect(Collectors.toList());
     }
 
     public List<Assignment> getAssignmentsBetweenDates(LocalDateTime start, LocalDateTime end) {
-        return getAllAssignments().stream()
-                .filter(a -> a.getDueDate() != null)
-                .filter(a -> !a.getDueDate().isBefore(start) && !a.getDueDate().isAfter(end))
-                .sorted(Comparator.comparing(Assignment::getDueDate))
-                .collect(Collectors.toList());
+        return dueDateIndex.find(AssignmentQuery.dueBetween(start, end));
     }
 }
@@ -0,0 +1,75 @@
+package com.jscheduler.service;
+
+import com.jscheduler.repository.ChangeFeedRepository;
+import com.jscheduler.repository.ChangeSet;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Polls a change feed in the background and passes each non-empty change set to a listener.
+ * The listener runs on the polling thread, so UI listeners should hand the change set
+ * to the FX thread with {@code Platform.runLater}.
+ */
+public class ChangeFeedPoller {
+
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+
+    private final ChangeFeedRepository repository;
+    private final Duration interval;
+    private final Consumer<ChangeSet> listener;
+    private final ScheduledExecutorService scheduler;
+    private Instant watermark;
+    private boolean isRunning;
+
+    public ChangeFeedPoller(ChangeFeedRepository repository, Duration interval, Consumer<ChangeSet> listener) {
+        this.repository = repository;
+        this.interval = interval;
+        this.listener = listener;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ChangeFeedPoller");
+            t.setDaemon(true);
+            return t;
+        });
+        this.isRunning = false;
+    }
+
+    /**
+     * @param watermark From {@link ChangeFeedRepository#currentWatermark()}, taken before the
+     *                  data the listener holds was loaded; the first poll reports changes from then on
+     */
+    public void start(Instant watermark) {
+        if (isRunning) return;
+        isRunning = true;
+        this.watermark = watermark;
+
+        // Fixed delay, so a slow poll is never overlapped by the next one
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::poll, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        isRunning = false;
+        scheduler.shutdown();
+    }
+
+    private void poll() {
+        try {
+            ChangeSet changes = repository.getChangesSince(watermark);
+            if (!changes.isEmpty()) {
+                listener.accept(changes);
+            }
+            // Advance only once the listener has the changes, so a failure repeats the poll
+            watermark = changes.watermark();
+        } catch (UnsupportedOperationException e) {
+            System.err.println("Change feed unavailable, polling stopped: " + e.getMessage());
+            stop();
+        } catch (RuntimeException e) {
+            System.err.println("Change feed poll failed: " + e.getMessage());
+        }
+    }
+}
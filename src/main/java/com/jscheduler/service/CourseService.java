@@ -3,17 +3,34 @@ package com.jscheduler.service;
 import com.jscheduler.model.Course;
 import com.jscheduler.model.Semester;
 import com.jscheduler.repository.CourseRepository;
+import com.jscheduler.repository.OptimisticLockException;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class CourseService {
 
+    private static final int MAX_CONFLICT_ATTEMPTS = 3;
+
     private final CourseRepository repository;
+    private final SearchIndex searchIndex;
+    private final List<ScheduleChangeListener> listeners = new CopyOnWriteArrayList<>();
 
-    public CourseService(CourseRepository repository) {
+    /**
+     * @param searchIndex Index behind {@link #searchCourses}; it is registered to follow
+     *                    the course changes made through this service
+     */
+    public CourseService(CourseRepository repository, SearchIndex searchIndex) {
         this.repository = repository;
+        this.searchIndex = searchIndex;
+        addChangeListener(searchIndex);
+    }
+
+    public void addChangeListener(ScheduleChangeListener listener) {
+        listeners.add(listener);
     }
 
     public List<Course> getAllCourses() {
@@ -33,24 +50,47 @@ public class CourseService {
     public Course createCourse(String name, String code, String professor, Semester semester) {
         Course course = new Course(name, code, professor, semester);
         repository.addCourse(course);
+        listeners.forEach(listener -> listener.courseSaved(course));
         return course;
     }
 
-    public void updateCourse(Course course) {
-        repository.updateCourse(course);
+    /**
+     * Applies a change to the current state of a course and saves it. If another
+     * client updates the course in between, the change is re-applied to a fresh copy.
+     * @return The saved course
+     * @throws OptimisticLockException if it was deleted, or still conflicts after a few attempts
+     */
+    public Course updateCourse(String courseId, Consumer<Course> change) {
+        for (int attempt = 1; ; attempt++) {
+            Course current = repository.getCourseById(courseId)
+                    .map(Course::new)
+                    .orElseThrow(() -> new IllegalArgumentException("Course not found: " + courseId));
+            change.accept(current);
+            try {
+                repository.updateCourse(current);
+                listeners.forEach(listener -> listener.courseSaved(current));
+                return current;
+            } catch (OptimisticLockException e) {
+                if (e.isDeleted() || attempt >= MAX_CONFLICT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
     }
 
     public void deleteCourse(String courseId) {
         repository.deleteCourse(courseId);
+        listeners.forEach(listener -> listener.courseDeleted(courseId));
     }
 
+    /**
+     * Searches names, codes and professors through the search index; see
+     * {@link SearchIndex} for the matching rules.
+     * @return Matching courses, most relevant first, without their assignments
+     */
     public List<Course> searchCourses(String query) {
-        String lowerQuery = query.toLowerCase();
-        return repository.getAllCourses().stream()
-                .filter(c ->
-                    (c.getName() != null && c.getName().toLowerCase().contains(lowerQuery)) ||
-                    (c.getCode() != null && c.getCode().toLowerCase().contains(lowerQuery)) ||
-                    (c.getProfessor() != null && c.getProfessor().toLowerCase().contains(lowerQuery)))
+        return searchIndex.search(query, SearchIndex.Type.COURSE, Integer.MAX_VALUE).stream()
+                .map(SearchIndex.Hit::course)
                 .collect(Collectors.toList());
     }
 }
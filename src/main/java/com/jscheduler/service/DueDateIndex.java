@@ -0,0 +1,281 @@
+package com.jscheduler.service;
+
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.AssignmentStatus;
+import com.jscheduler.model.Course;
+import com.jscheduler.repository.AssignmentQuery;
+import com.jscheduler.repository.ChangeSet;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of assignments ordered by due date, then ID, the order of
+ * {@link AssignmentQuery#DUE_DATE_ORDER}. A due-date range is found in O(log n) and its
+ * k assignments are read off in order, so range queries need neither a full scan nor a
+ * sort. Unsubmitted assignments are also kept in an index of their own, so the upcoming
+ * and overdue queries do not walk past submitted history.
+ *
+ * The index is built from the repository on first use and then kept current as a
+ * {@link ScheduleChangeListener}, one entry at a time. It holds its own copies of the
+ * assignments and hands out copies, so it works the same on top of any repository.
+ * Thread-safe.
+ */
+public class DueDateIndex implements ScheduleChangeListener {
+
+    // Sorts after every real ID, for exclusive bounds on a due date
+    private static final String MAX_ID = "\uffff";
+
+    private record Key(LocalDateTime dueDate, String id) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byDueDate = dueDate.compareTo(other.dueDate);
+            return byDueDate != 0 ? byDueDate : id.compareTo(other.id);
+        }
+    }
+
+    private final Supplier<Stream<Course>> source;
+    private final NavigableMap<Key, Assignment> byDueDate = new TreeMap<>();
+    // The part of byDueDate that is not submitted
+    private final NavigableMap<Key, Assignment> openByDueDate = new TreeMap<>();
+    // Assignments without a due date, which sort after all others
+    private final NavigableMap<String, Assignment> undated = new TreeMap<>();
+    private final Map<String, Key> keysById = new HashMap<>();
+    private final Map<String, Set<String>> idsByCourse = new HashMap<>();
+    private boolean isBuilt;
+
+    /**
+     * @param source Supplies every course with its assignments when the index is (re)built
+     */
+    public DueDateIndex(Supplier<Stream<Course>> source) {
+        this.source = source;
+    }
+
+    /**
+     * Evaluates the query against the index. Its due-date bounds select the range to read,
+     * every other filter is checked per assignment in that range. Queries that exclude
+     * submitted assignments read only the unsubmitted ones. Results always come back in
+     * due date order, whatever the query's sort order.
+     */
+    public synchronized List<Assignment> find(AssignmentQuery query) {
+        ensureBuilt();
+        List<Assignment> result = new ArrayList<>();
+        int limit = query.hasLimit() ? query.getLimit() : Integer.MAX_VALUE;
+
+        for (Assignment assignment : range(query).values()) {
+            if (result.size() >= limit) {
+                return result;
+            }
+            if (query.matches(assignment)) {
+                result.add(new Assignment(assignment));
+            }
+        }
+        if (!query.hasDueDateBounds()) {
+            for (Assignment assignment : undated.values()) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (query.matches(assignment)) {
+                    result.add(new Assignment(assignment));
+                }
+            }
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        ensureBuilt();
+        return keysById.size() + undated.size();
+    }
+
+    /**
+     * Drops the index; it is rebuilt from the repository on next use.
+     */
+    public synchronized void invalidate() {
+        byDueDate.clear();
+        openByDueDate.clear();
+        undated.clear();
+        keysById.clear();
+        idsByCourse.clear();
+        isBuilt = false;
+    }
+
+    // ===== ScheduleChangeListener =====
+
+    @Override
+    public synchronized void assignmentSaved(Assignment assignment) {
+        if (isBuilt) {
+            put(assignment);
+        }
+    }
+
+    @Override
+    public synchronized void assignmentDeleted(String courseId, String assignmentId) {
+        if (isBuilt) {
+            remove(assignmentId);
+        }
+    }
+
+    @Override
+    public synchronized void courseSaved(Course course) {
+        if (isBuilt) {
+            putCourse(course);
+        }
+    }
+
+    @Override
+    public synchronized void courseDeleted(String courseId) {
+        if (isBuilt) {
+            removeCourse(courseId);
+        }
+    }
+
+    @Override
+    public synchronized void changesApplied(ChangeSet changes) {
+        if (changes.resetRequired()) {
+            invalidate();
+            return;
+        }
+        if (!isBuilt) {
+            return;
+        }
+
+        changes.deletedCourseIds().forEach(this::removeCourse);
+        changes.deletedAssignments().forEach(deleted -> remove(deleted.assignmentId()));
+        for (Course course : changes.changedCourses()) {
+            // A changed course carries its complete assignment list
+            removeCourse(course.getId());
+            putCourse(course);
+        }
+        changes.changedAssignments().forEach(this::put);
+    }
+
+    @Override
+    public void scheduleReloaded() {
+        invalidate();
+    }
+
+    // ===== Maintenance =====
+
+    private void ensureBuilt() {
+        if (isBuilt) {
+            return;
+        }
+        try (Stream<Course> courses = source.get()) {
+            courses.forEach(this::putCourse);
+        }
+        isBuilt = true;
+    }
+
+    private void putCourse(Course course) {
+        if (course.getAssignments() != null) {
+            for (Assignment assignment : course.getAssignments()) {
+                Assignment stored = new Assignment(assignment);
+                stored.setCourseId(course.getId());
+                store(stored);
+            }
+        }
+    }
+
+    private void put(Assignment assignment) {
+        store(new Assignment(assignment));
+    }
+
+    private void store(Assignment stored) {
+        remove(stored.getId());
+        if (stored.getDueDate() == null) {
+            undated.put(stored.getId(), stored);
+        } else {
+            Key key = new Key(stored.getDueDate(), stored.getId());
+            byDueDate.put(key, stored);
+            if (stored.getStatus() != AssignmentStatus.SUBMITTED) {
+                openByDueDate.put(key, stored);
+            }
+            keysById.put(stored.getId(), key);
+        }
+        if (stored.getCourseId() != null) {
+            idsByCourse.computeIfAbsent(stored.getCourseId(), id -> new HashSet<>()).add(stored.getId());
+        }
+    }
+
+    private void remove(String assignmentId) {
+        Key key = keysById.remove(assignmentId);
+        Assignment removed = key != null ? removeDated(key) : undated.remove(assignmentId);
+        if (removed != null && removed.getCourseId() != null) {
+            Set<String> ids = idsByCourse.get(removed.getCourseId());
+            if (ids != null) {
+                ids.remove(assignmentId);
+                if (ids.isEmpty()) {
+                    idsByCourse.remove(removed.getCourseId());
+                }
+            }
+        }
+    }
+
+    private void removeCourse(String courseId) {
+        Set<String> ids = idsByCourse.remove(courseId);
+        if (ids != null) {
+            for (String id : ids) {
+                Key key = keysById.remove(id);
+                if (key != null) {
+                    removeDated(key);
+                } else {
+                    undated.remove(id);
+                }
+            }
+        }
+    }
+
+    private Assignment removeDated(Key key) {
+        openByDueDate.remove(key);
+        return byDueDate.remove(key);
+    }
+
+    /**
+     * @return The part of the index within the query's due-date bounds
+     */
+    private NavigableMap<Key, Assignment> range(AssignmentQuery query) {
+        NavigableMap<Key, Assignment> index =
+            query.getExcludedStatus() == AssignmentStatus.SUBMITTED ? openByDueDate : byDueDate;
+        Key lower = null;
+        if (query.getDueFrom() != null) {
+            lower = new Key(query.getDueFrom(), "");
+        }
+        if (query.getDueAfter() != null) {
+            lower = max(lower, new Key(query.getDueAfter(), MAX_ID));
+        }
+        Key upper = null;
+        if (query.getDueTo() != null) {
+            upper = new Key(query.getDueTo(), MAX_ID);
+        }
+        if (query.getDueBefore() != null) {
+            upper = min(upper, new Key(query.getDueBefore(), ""));
+        }
+
+        if (lower != null && upper != null) {
+            return lower.compareTo(upper) <= 0 ? index.subMap(lower, true, upper, true) : new TreeMap<>();
+        } else if (lower != null) {
+            return index.tailMap(lower, true);
+        } else if (upper != null) {
+            return index.headMap(upper, true);
+        }
+        return index;
+    }
+
+    private static Key max(Key a, Key b) {
+        return a == null || b.compareTo(a) > 0 ? b : a;
+    }
+
+    private static Key min(Key a, Key b) {
+        return a == null || b.compareTo(a) < 0 ? b : a;
+    }
+}
@@ -42,24 +42,28 @@ public class NotificationService {
     }
 
     private void checkUpcomingDeadlines() {
+        // One load and one "now" for every check below
+        ScheduleSnapshot snapshot = assignmentService.snapshot();
+        LocalDateTime now = snapshot.getNow();
+
         // Get assignments due within 3 days
-        List<Assignment> upcoming = assignmentService.getUpcomingAssignments(3);
+        List<Assignment> upcoming = snapshot.getUpcomingAssignments(3);
 
         for (Assignment assignment : upcoming) {
-            long hoursUntilDue = ChronoUnit.HOURS.between(LocalDateTime.now(), assignment.getDueDate());
+            long hoursUntilDue = ChronoUnit.HOURS.between(now, assignment.getDueDate());
 
             if (hoursUntilDue <= 24) {
                 showNotification("Assignment Due Soon!",
                         assignment.getTitle() + " is due in " + hoursUntilDue + " hours");
             } else if (hoursUntilDue <= 72) {
-                long daysUntilDue = ChronoUnit.DAYS.between(LocalDateTime.now(), assignment.getDueDate());
+                long daysUntilDue = ChronoUnit.DAYS.between(now, assignment.getDueDate());
                 showNotification("Upcoming Deadline",
                         assignment.getTitle() + " is due in " + daysUntilDue + " days");
             }
         }
 
         // Check for overdue assignments
-        List<Assignment> overdue = assignmentService.getOverdueAssignments();
+        List<Assignment> overdue = snapshot.getOverdueAssignments();
         if (!overdue.isEmpty()) {
             showNotification("Overdue Assignments",
                     "You have " + overdue.size() + " overdue assignment(s)");
@@ -0,0 +1,49 @@
+package com.jscheduler.service;
+
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.Course;
+import com.jscheduler.repository.ChangeSet;
+
+/**
+ * Notified by {@link CourseService} and {@link AssignmentService} after they change the
+ * schedule, so in-memory views derived from it can be updated incrementally instead of
+ * being rebuilt from the repository. Listeners run on the thread that made the change.
+ * A listener that follows both courses and assignments registers with both services.
+ */
+public interface ScheduleChangeListener {
+
+    /**
+     * An assignment was created or updated.
+     */
+    default void assignmentSaved(Assignment assignment) {
+    }
+
+    default void assignmentDeleted(String courseId, String assignmentId) {
+    }
+
+    /**
+     * A course was created or updated, together with the assignments it carries. Stored
+     * assignments missing from the course were left alone.
+     */
+    default void courseSaved(Course course) {
+    }
+
+    /**
+     * A course was deleted, and all its assignments with it.
+     */
+    default void courseDeleted(String courseId) {
+    }
+
+    /**
+     * Other clients changed the schedule. If {@link ChangeSet#resetRequired()} is set,
+     * anything derived from the schedule must be rebuilt.
+     */
+    default void changesApplied(ChangeSet changes) {
+    }
+
+    /**
+     * The repository was reloaded, so anything derived from the schedule must be rebuilt.
+     */
+    default void scheduleReloaded() {
+    }
+}
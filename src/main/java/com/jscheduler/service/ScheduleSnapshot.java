@@ -0,0 +1,206 @@
+package com.jscheduler.service;
+
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.AssignmentStatus;
+import com.jscheduler.model.AssignmentSummary;
+import com.jscheduler.model.Course;
+import com.jscheduler.repository.AssignmentQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * The whole schedule loaded once, together with a single pinned "now", for screens that
+ * run several queries per refresh. Every query against one snapshot sees the same data
+ * and the same time, and none of them goes back to the repository.
+ *
+ * Answers the same queries as {@link AssignmentService}. Assignments are held in due date
+ * order, so due-date bounded queries binary-search their range. Lists and the objects in
+ * them are shared by all callers of the snapshot: treat them as read-only and copy an
+ * assignment or course before changing it.
+ */
+public final class ScheduleSnapshot {
+
+    private final LocalDateTime now;
+    private final List<Course> courses;
+    private final Map<String, Course> coursesById;
+    private final Map<String, Assignment> assignmentsById;
+    // In AssignmentQuery.DUE_DATE_ORDER, so assignments without a due date come last
+    private final List<Assignment> byDueDate;
+    private final int datedCount;
+
+    /**
+     * @param courses Courses with their assignments; the snapshot holds copies, since
+     *                repositories may hand out instances they share with other callers
+     */
+    public ScheduleSnapshot(List<Course> courses, LocalDateTime now) {
+        this.now = now;
+        this.coursesById = new HashMap<>();
+        this.assignmentsById = new HashMap<>();
+
+        List<Course> copies = new ArrayList<>(courses.size());
+        List<Assignment> assignments = new ArrayList<>();
+        for (Course original : courses) {
+            Course course = new Course(original);
+            copies.add(course);
+            coursesById.put(course.getId(), course);
+            if (course.getAssignments() != null) {
+                for (Assignment assignment : course.getAssignments()) {
+                    assignment.setCourseId(course.getId());
+                    assignmentsById.put(assignment.getId(), assignment);
+                    assignments.add(assignment);
+                }
+            }
+        }
+        this.courses = Collections.unmodifiableList(copies);
+        assignments.sort(AssignmentQuery.DUE_DATE_ORDER);
+        this.byDueDate = Collections.unmodifiableList(assignments);
+
+        int dated = 0;
+        while (dated < assignments.size() && assignments.get(dated).getDueDate() != null) {
+            dated++;
+        }
+        this.datedCount = dated;
+    }
+
+    /**
+     * The time all time-relative queries of this snapshot are evaluated at.
+     */
+    public LocalDateTime getNow() {
+        return now;
+    }
+
+    // ===== Courses =====
+
+    public List<Course> getAllCourses() {
+        return courses;
+    }
+
+    public Optional<Course> getCourseById(String id) {
+        return Optional.ofNullable(coursesById.get(id));
+    }
+
+    public List<Course> searchCourses(String query) {
+        String lowerQuery = query.toLowerCase();
+        return courses.stream()
+                .filter(c ->
+                    (c.getName() != null && c.getName().toLowerCase().contains(lowerQuery)) ||
+                    (c.getCode() != null && c.getCode().toLowerCase().contains(lowerQuery)) ||
+                    (c.getProfessor() != null && c.getProfessor().toLowerCase().contains(lowerQuery)))
+                .collect(Collectors.toList());
+    }
+
+    // ===== Assignments =====
+
+    /**
+     * @return Every assignment, in due date order
+     */
+    public List<Assignment> getAllAssignments() {
+        return byDueDate;
+    }
+
+    public long countAssignments() {
+        return byDueDate.size();
+    }
+
+    public List<Assignment> getAssignmentsByCourse(String courseId) {
+        return getCourseById(courseId)
+                .map(Course::getAssignments)
+                .orElse(new ArrayList<>());
+    }
+
+    public Optional<Assignment> getAssignmentById(String assignmentId) {
+        return Optional.ofNullable(assignmentsById.get(assignmentId));
+    }
+
+    /**
+     * Evaluates the query against the snapshot. Results are in due date order, whatever
+     * the query's sort order.
+     */
+    public List<Assignment> findAssignments(AssignmentQuery query) {
+        int from = 0;
+        int to = byDueDate.size();
+        if (query.hasDueDateBounds()) {
+            to = datedCount;
+            if (query.getDueFrom() != null) {
+                from = Math.max(from, firstDueAtOrAfter(query.getDueFrom(), true));
+            }
+            if (query.getDueAfter() != null) {
+                from = Math.max(from, firstDueAtOrAfter(query.getDueAfter(), false));
+            }
+            if (query.getDueTo() != null) {
+                to = Math.min(to, firstDueAtOrAfter(query.getDueTo(), false));
+            }
+            if (query.getDueBefore() != null) {
+                to = Math.min(to, firstDueAtOrAfter(query.getDueBefore(), true));
+            }
+        }
+
+        List<Assignment> result = new ArrayList<>();
+        for (int i = from; i < to && (!query.hasLimit() || result.size() < query.getLimit()); i++) {
+            Assignment assignment = byDueDate.get(i);
+            if (query.matches(assignment)) {
+                result.add(assignment);
+            }
+        }
+        return result;
+    }
+
+    public List<AssignmentSummary> getAssignmentSummaries(AssignmentQuery query) {
+        return findAssignments(query).stream()
+                .map(AssignmentSummary::of)
+                .collect(Collectors.toList());
+    }
+
+    public List<Assignment> getAssignmentsByStatus(AssignmentStatus status) {
+        return findAssignments(AssignmentQuery.byStatus(status));
+    }
+
+    public List<Assignment> getUpcomingAssignments(int daysAhead) {
+        return findAssignments(AssignmentQuery.upcoming(now, daysAhead));
+    }
+
+    public List<Assignment> getOverdueAssignments() {
+        return findAssignments(AssignmentQuery.overdue(now));
+    }
+
+    public List<Assignment> getAssignmentsBetweenDates(LocalDateTime start, LocalDateTime end) {
+        return findAssignments(AssignmentQuery.dueBetween(start, end));
+    }
+
+    public List<Assignment> searchAssignments(String query) {
+        String lowerQuery = query.toLowerCase();
+        return byDueDate.stream()
+                .filter(a ->
+                    (a.getTitle() != null && a.getTitle().toLowerCase().contains(lowerQuery)) ||
+                    (a.getDescription() != null && a.getDescription().toLowerCase().contains(lowerQuery)) ||
+                    (a.getNotes() != null && a.getNotes().toLowerCase().contains(lowerQuery)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return Index of the first dated assignment due at or after {@code time} if
+     *         {@code inclusive}, or strictly after it if not
+     */
+    private int firstDueAtOrAfter(LocalDateTime time, boolean inclusive) {
+        int low = 0;
+        int high = datedCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            LocalDateTime dueDate = byDueDate.get(mid).getDueDate();
+            boolean before = inclusive ? dueDate.isBefore(time) : !dueDate.isAfter(time);
+            if (before) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
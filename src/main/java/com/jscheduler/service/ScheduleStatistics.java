@@ -0,0 +1,281 @@
+package com.jscheduler.service;
+
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.AssignmentStatus;
+import com.jscheduler.model.Course;
+import com.jscheduler.repository.ChangeSet;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Dashboard counters kept current from {@link ScheduleChangeListener} events: totals,
+ * assignments per status and per course, and the overdue and upcoming buckets, with the
+ * same meaning as the {@code overdue} and {@code upcoming} queries of AssignmentQuery.
+ *
+ * Counters are built from the repository on first use. The buckets are valid for the
+ * time they were last read at; reading them at a later time moves only the assignments
+ * whose due date passed a bucket boundary in between, so a read costs O(1) plus the
+ * assignments that changed bucket. Thread-safe.
+ */
+public class ScheduleStatistics implements ScheduleChangeListener {
+
+    public static final Duration DEFAULT_UPCOMING_WINDOW = Duration.ofDays(7);
+
+    public record Summary(int courseCount, int assignmentCount, int upcomingCount, int overdueCount) {
+    }
+
+    private enum Bucket {
+        OVERDUE,
+        UPCOMING,
+        LATER
+    }
+
+    private record Entry(String courseId, AssignmentStatus status, LocalDateTime dueDate) {
+        // Only unsubmitted assignments with a due date are overdue or upcoming
+        boolean isPending() {
+            return status != AssignmentStatus.SUBMITTED && dueDate != null;
+        }
+    }
+
+    private final Supplier<Stream<Course>> source;
+    private final Duration upcomingWindow;
+    private final Set<String> courseIds = new HashSet<>();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Set<String>> idsByCourse = new HashMap<>();
+    private final Map<AssignmentStatus, Integer> statusCounts = new EnumMap<>(AssignmentStatus.class);
+    // Number of pending assignments per due date
+    private final NavigableMap<LocalDateTime, Integer> pendingByDueDate = new TreeMap<>();
+    private LocalDateTime asOf;
+    private int overdueCount;
+    private int upcomingCount;
+    private boolean isBuilt;
+
+    /**
+     * @param source Supplies every course with its assignments when the counters are (re)built
+     */
+    public ScheduleStatistics(Supplier<Stream<Course>> source) {
+        this(source, DEFAULT_UPCOMING_WINDOW);
+    }
+
+    public ScheduleStatistics(Supplier<Stream<Course>> source, Duration upcomingWindow) {
+        this.source = source;
+        this.upcomingWindow = upcomingWindow;
+    }
+
+    /**
+     * @return The dashboard counters, with overdue and upcoming evaluated at {@code now}
+     */
+    public synchronized Summary summary(LocalDateTime now) {
+        ensureBuilt();
+        rollTo(now);
+        return new Summary(courseIds.size(), entries.size(), upcomingCount, overdueCount);
+    }
+
+    public synchronized int getStatusCount(AssignmentStatus status) {
+        ensureBuilt();
+        return statusCounts.getOrDefault(status, 0);
+    }
+
+    public synchronized int getCourseAssignmentCount(String courseId) {
+        ensureBuilt();
+        Set<String> ids = idsByCourse.get(courseId);
+        return ids != null ? ids.size() : 0;
+    }
+
+    /**
+     * Drops the counters; they are rebuilt from the repository on next use.
+     */
+    public synchronized void invalidate() {
+        courseIds.clear();
+        entries.clear();
+        idsByCourse.clear();
+        statusCounts.clear();
+        pendingByDueDate.clear();
+        overdueCount = 0;
+        upcomingCount = 0;
+        isBuilt = false;
+    }
+
+    // ===== ScheduleChangeListener =====
+
+    @Override
+    public synchronized void assignmentSaved(Assignment assignment) {
+        if (isBuilt) {
+            put(assignment.getId(), assignment.getCourseId(), assignment);
+        }
+    }
+
+    @Override
+    public synchronized void assignmentDeleted(String courseId, String assignmentId) {
+        if (isBuilt) {
+            remove(assignmentId);
+        }
+    }
+
+    @Override
+    public synchronized void courseSaved(Course course) {
+        if (isBuilt) {
+            putCourse(course);
+        }
+    }
+
+    @Override
+    public synchronized void courseDeleted(String courseId) {
+        if (isBuilt) {
+            removeCourse(courseId);
+        }
+    }
+
+    @Override
+    public synchronized void changesApplied(ChangeSet changes) {
+        if (changes.resetRequired()) {
+            invalidate();
+            return;
+        }
+        if (!isBuilt) {
+            return;
+        }
+
+        changes.deletedCourseIds().forEach(this::removeCourse);
+        changes.deletedAssignments().forEach(deleted -> remove(deleted.assignmentId()));
+        for (Course course : changes.changedCourses()) {
+            // A changed course carries its complete assignment list
+            removeCourse(course.getId());
+            putCourse(course);
+        }
+        changes.changedAssignments().forEach(a -> put(a.getId(), a.getCourseId(), a));
+    }
+
+    @Override
+    public void scheduleReloaded() {
+        invalidate();
+    }
+
+    // ===== Maintenance =====
+
+    private void ensureBuilt() {
+        if (isBuilt) {
+            return;
+        }
+        asOf = LocalDateTime.now();
+        try (Stream<Course> courses = source.get()) {
+            courses.forEach(this::putCourse);
+        }
+        isBuilt = true;
+    }
+
+    private void putCourse(Course course) {
+        courseIds.add(course.getId());
+        if (course.getAssignments() != null) {
+            for (Assignment assignment : course.getAssignments()) {
+                put(assignment.getId(), course.getId(), assignment);
+            }
+        }
+    }
+
+    private void put(String assignmentId, String courseId, Assignment assignment) {
+        remove(assignmentId);
+        Entry entry = new Entry(courseId, assignment.getStatus(), assignment.getDueDate());
+        entries.put(assignmentId, entry);
+        if (courseId != null) {
+            idsByCourse.computeIfAbsent(courseId, id -> new HashSet<>()).add(assignmentId);
+        }
+        count(entry, 1);
+    }
+
+    private void remove(String assignmentId) {
+        Entry entry = entries.remove(assignmentId);
+        if (entry == null) {
+            return;
+        }
+        Set<String> ids = idsByCourse.get(entry.courseId());
+        if (ids != null) {
+            ids.remove(assignmentId);
+            if (ids.isEmpty()) {
+                idsByCourse.remove(entry.courseId());
+            }
+        }
+        count(entry, -1);
+    }
+
+    private void removeCourse(String courseId) {
+        courseIds.remove(courseId);
+        Set<String> ids = idsByCourse.get(courseId);
+        if (ids != null) {
+            for (String id : Set.copyOf(ids)) {
+                remove(id);
+            }
+        }
+    }
+
+    private void count(Entry entry, int delta) {
+        if (entry.status() != null) {
+            statusCounts.merge(entry.status(), delta, Integer::sum);
+        }
+        if (entry.isPending()) {
+            pendingByDueDate.merge(entry.dueDate(), delta, (a, b) -> a + b == 0 ? null : a + b);
+            adjustBucket(bucket(entry.dueDate(), asOf), delta);
+        }
+    }
+
+    /**
+     * Moves the buckets from {@link #asOf} to {@code now}. Only due dates between the two
+     * times, or between the two ends of the upcoming window, can change bucket.
+     */
+    private void rollTo(LocalDateTime now) {
+        if (now.isEqual(asOf)) {
+            return;
+        }
+        LocalDateTime earlier = now.isBefore(asOf) ? now : asOf;
+        LocalDateTime later = now.isBefore(asOf) ? asOf : now;
+        LocalDateTime windowStart = earlier.plus(upcomingWindow);
+
+        if (windowStart.isAfter(later)) {
+            reclassify(pendingByDueDate.subMap(earlier, true, later, true), now);
+            reclassify(pendingByDueDate.subMap(windowStart, true, later.plus(upcomingWindow), true), now);
+        } else {
+            // The ranges overlap, so walk them as one
+            reclassify(pendingByDueDate.subMap(earlier, true, later.plus(upcomingWindow), true), now);
+        }
+        asOf = now;
+    }
+
+    private void reclassify(Map<LocalDateTime, Integer> dueDates, LocalDateTime now) {
+        for (Map.Entry<LocalDateTime, Integer> dueDate : dueDates.entrySet()) {
+            Bucket before = bucket(dueDate.getKey(), asOf);
+            Bucket after = bucket(dueDate.getKey(), now);
+            if (before != after) {
+                adjustBucket(before, -dueDate.getValue());
+                adjustBucket(after, dueDate.getValue());
+            }
+        }
+    }
+
+    private Bucket bucket(LocalDateTime dueDate, LocalDateTime at) {
+        if (dueDate.isBefore(at)) {
+            return Bucket.OVERDUE;
+        }
+        if (dueDate.isAfter(at) && dueDate.isBefore(at.plus(upcomingWindow))) {
+            return Bucket.UPCOMING;
+        }
+        return Bucket.LATER;
+    }
+
+    private void adjustBucket(Bucket bucket, int delta) {
+        if (bucket == Bucket.OVERDUE) {
+            overdueCount += delta;
+        } else if (bucket == Bucket.UPCOMING) {
+            upcomingCount += delta;
+        }
+    }
+}
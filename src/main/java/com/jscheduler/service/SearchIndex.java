@@ -0,0 +1,511 @@
+package com.jscheduler.service;
+
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.Course;
+import com.jscheduler.repository.ChangeSet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over the searchable text of courses (name, code, professor)
+ * and assignments (title, description, notes).
+ *
+ * Text is split into lowercase letter/digit tokens. A query matches a document if every
+ * query token is one of its terms, except the last token, which only has to be a prefix
+ * of one, so results narrow as the user types. Each term carries the summed boost of the
+ * fields it occurs in, e.g. a title match outranks a notes match, and a document scores
+ * the sum over the query tokens; a prefix match counts less than an exact one. A query
+ * only reads the postings of its tokens, not every document.
+ *
+ * The index is built on first use and then kept current as a {@link ScheduleChangeListener}.
+ * It holds its own copies of the indexed courses and assignments and returns matches
+ * already resolved to copies of them. Thread-safe.
+ */
+public class SearchIndex implements ScheduleChangeListener {
+
+    public enum Type {
+        COURSE,
+        ASSIGNMENT
+    }
+
+    /**
+     * A matching course or assignment and its relevance score; higher is better. For an
+     * assignment, {@code course} is the course it belongs to, if indexed. Both are copies,
+     * the course without its assignments.
+     */
+    public record Hit(Type type, String id, double score, Course course, Assignment assignment) {
+    }
+
+    private static final float COURSE_NAME_BOOST = 3.0f;
+    private static final float COURSE_CODE_BOOST = 3.0f;
+    private static final float PROFESSOR_BOOST = 1.5f;
+    private static final float TITLE_BOOST = 3.0f;
+    private static final float DESCRIPTION_BOOST = 1.0f;
+    private static final float NOTES_BOOST = 0.5f;
+    private static final float PREFIX_MATCH_FACTOR = 0.75f;
+
+    private final Supplier<Stream<Course>> source;
+    // Term -> documents containing it; sorted for prefix lookups
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    // Documents are numbered so postings are plain sorted arrays; numbers are reused
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<String> idsByOrdinal = new ArrayList<>();
+    private final List<String[]> termsByOrdinal = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final Map<String, Course> courses = new HashMap<>();
+    private final Map<String, Assignment> assignments = new HashMap<>();
+    private final Map<String, Set<String>> assignmentIdsByCourse = new HashMap<>();
+    private boolean isBuilt;
+
+    /**
+     * @param source Supplies every course with its assignments when the index is (re)built
+     */
+    public SearchIndex(Supplier<Stream<Course>> source) {
+        this.source = source;
+    }
+
+    /**
+     * @return Every matching document, best match first
+     */
+    public List<Hit> search(String query) {
+        return search(query, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return The {@code limit} best matching documents, best match first
+     */
+    public List<Hit> search(String query, int limit) {
+        return search(query, null, limit);
+    }
+
+    /**
+     * @param type Only return documents of this type, or null for both
+     * @return The {@code limit} best matching documents of the type, best match first
+     */
+    public synchronized List<Hit> search(String query, Type type, int limit) {
+        ensureBuilt();
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        // A trailing separator means the last token is complete
+        boolean lastIsPrefix = Character.isLetterOrDigit(query.charAt(query.length() - 1));
+
+        List<Postings> matches = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            boolean prefix = lastIsPrefix && i == tokens.size() - 1;
+            Postings tokenMatches = prefix ? prefixMatches(tokens.get(i)) : postings.get(tokens.get(i));
+            if (tokenMatches == null || tokenMatches.size == 0) {
+                return new ArrayList<>();
+            }
+            matches.add(tokenMatches);
+        }
+        // Intersect starting from the rarest token, so each step probes as few documents as possible
+        matches.sort(Comparator.comparingInt(tokenMatches -> tokenMatches.size));
+        Postings result = matches.get(0);
+        for (int i = 1; i < matches.size() && result.size > 0; i++) {
+            result = result.intersect(matches.get(i));
+        }
+        return rank(result, type, limit);
+    }
+
+    /**
+     * Drops the index; it is rebuilt on next use.
+     */
+    public synchronized void invalidate() {
+        postings.clear();
+        ordinals.clear();
+        idsByOrdinal.clear();
+        termsByOrdinal.clear();
+        freeOrdinals.clear();
+        courses.clear();
+        assignments.clear();
+        assignmentIdsByCourse.clear();
+        isBuilt = false;
+    }
+
+    // ===== ScheduleChangeListener =====
+
+    @Override
+    public synchronized void assignmentSaved(Assignment assignment) {
+        if (isBuilt) {
+            putAssignment(new Assignment(assignment));
+        }
+    }
+
+    @Override
+    public synchronized void assignmentDeleted(String courseId, String assignmentId) {
+        if (isBuilt) {
+            removeAssignment(assignmentId);
+        }
+    }
+
+    @Override
+    public synchronized void courseSaved(Course course) {
+        if (isBuilt) {
+            putCourse(course);
+        }
+    }
+
+    @Override
+    public synchronized void courseDeleted(String courseId) {
+        if (isBuilt) {
+            removeCourse(courseId);
+        }
+    }
+
+    @Override
+    public synchronized void changesApplied(ChangeSet changes) {
+        if (changes.resetRequired()) {
+            invalidate();
+            return;
+        }
+        if (!isBuilt) {
+            return;
+        }
+
+        changes.deletedCourseIds().forEach(this::removeCourse);
+        changes.deletedAssignments().forEach(deleted -> removeAssignment(deleted.assignmentId()));
+        for (Course course : changes.changedCourses()) {
+            // A changed course carries its complete assignment list
+            removeCourse(course.getId());
+            putCourse(course);
+        }
+        changes.changedAssignments().forEach(a -> putAssignment(new Assignment(a)));
+    }
+
+    @Override
+    public void scheduleReloaded() {
+        invalidate();
+    }
+
+    // ===== Maintenance =====
+
+    private void ensureBuilt() {
+        if (isBuilt) {
+            return;
+        }
+        try (Stream<Course> all = source.get()) {
+            all.forEach(this::putCourse);
+        }
+        isBuilt = true;
+    }
+
+    /**
+     * Indexes the course row and the assignments it carries; assignments indexed
+     * before and missing from it are kept.
+     */
+    private void putCourse(Course course) {
+        Course stored = new Course(course);
+        List<Assignment> carried = stored.getAssignments() != null ? stored.getAssignments() : List.of();
+        stored.setAssignments(new ArrayList<>());
+
+        removeDocument(stored.getId());
+        courses.put(stored.getId(), stored);
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, stored.getName(), COURSE_NAME_BOOST);
+        addField(weights, stored.getCode(), COURSE_CODE_BOOST);
+        addField(weights, stored.getProfessor(), PROFESSOR_BOOST);
+        addDocument(stored.getId(), weights);
+
+        for (Assignment assignment : carried) {
+            assignment.setCourseId(stored.getId());
+            putAssignment(assignment);
+        }
+    }
+
+    private void putAssignment(Assignment stored) {
+        removeAssignment(stored.getId());
+        assignments.put(stored.getId(), stored);
+        if (stored.getCourseId() != null) {
+            assignmentIdsByCourse.computeIfAbsent(stored.getCourseId(), id -> new HashSet<>()).add(stored.getId());
+        }
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, stored.getTitle(), TITLE_BOOST);
+        addField(weights, stored.getDescription(), DESCRIPTION_BOOST);
+        addField(weights, stored.getNotes(), NOTES_BOOST);
+        addDocument(stored.getId(), weights);
+    }
+
+    private void removeAssignment(String assignmentId) {
+        Assignment removed = assignments.remove(assignmentId);
+        if (removed == null) {
+            return;
+        }
+        Set<String> ids = assignmentIdsByCourse.get(removed.getCourseId());
+        if (ids != null) {
+            ids.remove(assignmentId);
+            if (ids.isEmpty()) {
+                assignmentIdsByCourse.remove(removed.getCourseId());
+            }
+        }
+        removeDocument(assignmentId);
+    }
+
+    private void removeCourse(String courseId) {
+        courses.remove(courseId);
+        removeDocument(courseId);
+        Set<String> ids = assignmentIdsByCourse.get(courseId);
+        if (ids != null) {
+            for (String id : Set.copyOf(ids)) {
+                removeAssignment(id);
+            }
+        }
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float boost) {
+        // Each field counts once per term, however often the term repeats in it
+        for (String term : new HashSet<>(tokenize(text))) {
+            weights.merge(term, boost, Float::sum);
+        }
+    }
+
+    private void addDocument(String documentId, Map<String, Float> weights) {
+        Integer ordinal = ordinals.get(documentId);
+        if (ordinal == null) {
+            ordinal = freeOrdinals.isEmpty() ? idsByOrdinal.size() : freeOrdinals.pop();
+            ordinals.put(documentId, ordinal);
+            if (ordinal == idsByOrdinal.size()) {
+                idsByOrdinal.add(documentId);
+                termsByOrdinal.add(null);
+            } else {
+                idsByOrdinal.set(ordinal, documentId);
+            }
+        }
+        for (Map.Entry<String, Float> weight : weights.entrySet()) {
+            postings.computeIfAbsent(weight.getKey(), term -> new Postings(1))
+                    .put(ordinal, weight.getValue());
+        }
+        termsByOrdinal.set(ordinal, weights.keySet().toArray(new String[0]));
+    }
+
+    private void removeDocument(String documentId) {
+        Integer ordinal = ordinals.remove(documentId);
+        if (ordinal == null) {
+            return;
+        }
+        for (String term : termsByOrdinal.get(ordinal)) {
+            Postings documents = postings.get(term);
+            if (documents != null) {
+                documents.remove(ordinal);
+                if (documents.size == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+        idsByOrdinal.set(ordinal, null);
+        termsByOrdinal.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+    }
+
+    // ===== Querying =====
+
+    /**
+     * @return Documents with a term starting with {@code prefix}, each with its best weight
+     *         among those terms
+     */
+    private Postings prefixMatches(String prefix) {
+        Map<String, Postings> terms = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        if (terms.size() == 1 && terms.containsKey(prefix)) {
+            return terms.get(prefix);
+        }
+
+        // Weights are positive, so 0 marks a document no term matched
+        float[] best = new float[idsByOrdinal.size()];
+        for (Map.Entry<String, Postings> term : terms.entrySet()) {
+            float factor = term.getKey().length() == prefix.length() ? 1.0f : PREFIX_MATCH_FACTOR;
+            Postings documents = term.getValue();
+            for (int i = 0; i < documents.size; i++) {
+                int ordinal = documents.ordinals[i];
+                float weight = documents.weights[i] * factor;
+                if (weight > best[ordinal]) {
+                    best[ordinal] = weight;
+                }
+            }
+        }
+        int count = 0;
+        for (float weight : best) {
+            if (weight != 0) {
+                count++;
+            }
+        }
+        int[] ordinals = new int[count];
+        float[] weights = new float[count];
+        for (int ordinal = 0, i = 0; i < count; ordinal++) {
+            if (best[ordinal] != 0) {
+                ordinals[i] = ordinal;
+                weights[i++] = best[ordinal];
+            }
+        }
+        return new Postings(ordinals, weights, count);
+    }
+
+    /**
+     * Ranks by score, best first; equal scores keep index order. Resolves the hits in the
+     * same pass, copying each course once however many of its assignments matched.
+     */
+    private List<Hit> rank(Postings matches, Type type, int limit) {
+        float[] scores = matches.weights;
+        // Positions of the best `limit` matches, worst of them at the head
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, matches.size) + 1,
+                (a, b) -> scores[a] != scores[b] ? Float.compare(scores[a], scores[b]) : Integer.compare(b, a));
+        for (int i = 0; i < matches.size; i++) {
+            if (type != null && typeOf(idsByOrdinal.get(matches.ordinals[i])) != type) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(i);
+            } else if (scores[i] > scores[best.peek()]) {
+                best.poll();
+                best.add(i);
+            }
+        }
+
+        Map<String, Course> resolvedCourses = new HashMap<>();
+        Hit[] ranked = new Hit[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            int position = best.poll();
+            String id = idsByOrdinal.get(matches.ordinals[position]);
+            Assignment assignment = assignments.get(id);
+            if (assignment == null) {
+                ranked[i] = new Hit(Type.COURSE, id, scores[position], resolveCourse(id, resolvedCourses), null);
+            } else {
+                ranked[i] = new Hit(Type.ASSIGNMENT, id, scores[position],
+                        resolveCourse(assignment.getCourseId(), resolvedCourses), new Assignment(assignment));
+            }
+        }
+        return new ArrayList<>(Arrays.asList(ranked));
+    }
+
+    private Type typeOf(String id) {
+        return assignments.containsKey(id) ? Type.ASSIGNMENT : Type.COURSE;
+    }
+
+    private Course resolveCourse(String courseId, Map<String, Course> resolved) {
+        if (courseId == null || !courses.containsKey(courseId)) {
+            return null;
+        }
+        return resolved.computeIfAbsent(courseId, id -> new Course(courses.get(id)));
+    }
+
+    /**
+     * Documents and their weights, sorted by document ordinal.
+     */
+    private static final class Postings {
+        private int[] ordinals;
+        private float[] weights;
+        private int size;
+
+        Postings(int capacity) {
+            this(new int[Math.max(capacity, 1)], new float[Math.max(capacity, 1)], 0);
+        }
+
+        Postings(int[] ordinals, float[] weights, int size) {
+            this.ordinals = ordinals;
+            this.weights = weights;
+            this.size = size;
+        }
+
+        void put(int ordinal, float weight) {
+            // Documents are mostly indexed in ordinal order, so this is usually an append
+            int index = size > 0 && ordinals[size - 1] < ordinal ? -size - 1 : Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (index >= 0) {
+                weights[index] = weight;
+                return;
+            }
+            index = -index - 1;
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(ordinals, index, ordinals, index + 1, size - index);
+            System.arraycopy(weights, index, weights, index + 1, size - index);
+            ordinals[index] = ordinal;
+            weights[index] = weight;
+            size++;
+        }
+
+        void append(int ordinal, float weight) {
+            ordinals[size] = ordinal;
+            weights[size] = weight;
+            size++;
+        }
+
+        void remove(int ordinal) {
+            int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (index >= 0) {
+                System.arraycopy(ordinals, index + 1, ordinals, index, size - index - 1);
+                System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+                size--;
+            }
+        }
+
+        /**
+         * @return Documents in both, with their weights added
+         */
+        Postings intersect(Postings other) {
+            Postings result = new Postings(Math.min(size, other.size));
+            int from = 0;
+            for (int i = 0; i < size && from < other.size; i++) {
+                int index = other.find(ordinals[i], from);
+                if (index >= 0) {
+                    result.append(ordinals[i], weights[i] + other.weights[index]);
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Galloping search from {@code from}, cheap when the ordinal is close by as it is
+         * when intersecting lists of similar size.
+         * @return As {@link Arrays#binarySearch(int[], int, int, int)}
+         */
+        private int find(int ordinal, int from) {
+            int bound = 1;
+            while (from + bound < size && ordinals[from + bound] < ordinal) {
+                bound *= 2;
+            }
+            return Arrays.binarySearch(ordinals, from + bound / 2, Math.min(from + bound + 1, size), ordinal);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean tokenChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
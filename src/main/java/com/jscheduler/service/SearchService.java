@@ -3,91 +3,83 @@ package com.jscheduler.service;
 import com.jscheduler.model.Assignment;
 import com.jscheduler.model.AssignmentStatus;
 import com.jscheduler.model.Course;
+import com.jscheduler.repository.AssignmentQuery;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class SearchService {
 
-    private final CourseService courseService;
     private final AssignmentService assignmentService;
+    private final SearchIndex index;
 
-    public SearchService(CourseService courseService, AssignmentService assignmentService) {
-        this.courseService = courseService;
+    public SearchService(AssignmentService assignmentService) {
         this.assignmentService = assignmentService;
+        this.index = assignmentService.getSearchIndex();
     }
 
-    public record SearchResult(String type, String id, String title, String subtitle, Course course) {
+    /**
+     * @param course The course, or for an assignment the course it belongs to, if known
+     * @param assignment The matching assignment, or null for a course
+     * @param score Relevance to the query; results come best first
+     */
+    public record SearchResult(String type, String id, String title, String subtitle,
+                               Course course, Assignment assignment, double score) {
     }
 
+    /**
+     * Full-text search over courses and assignments; see {@link SearchIndex} for the
+     * matching and ranking rules. Results are fully resolved, so callers need no
+     * further lookups.
+     *
+     * @return Matching courses and assignments, most relevant first
+     */
     public List<SearchResult> search(String query) {
+        return search(query, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return The {@code limit} most relevant matches, most relevant first
+     */
+    public List<SearchResult> search(String query, int limit) {
         if (query == null || query.trim().isEmpty()) {
             return new ArrayList<>();
         }
 
         List<SearchResult> results = new ArrayList<>();
-
-        // Search courses
-        courseService.searchCourses(query).forEach(course ->
-            results.add(new SearchResult(
-                "Course",
-                course.getId(),
-                course.getDisplayName(),
-                "Professor: " + course.getProfessor(),
-                course
-            ))
-        );
-
-        // Search assignments
-        assignmentService.searchAssignments(query).forEach(assignment -> {
-            Course course = courseService.getCourseById(assignment.getCourseId()).orElse(null);
-            String courseName = course != null ? course.getDisplayName() : "Unknown Course";
-            results.add(new SearchResult(
-                "Assignment",
-                assignment.getId(),
-                assignment.getTitle(),
-                courseName + " | Due: " + (assignment.getDueDate() != null ?
-                    assignment.getDueDate().toLocalDate().toString() : "No date"),
-                course
-            ));
-        });
-
+        for (SearchIndex.Hit hit : index.search(query, limit)) {
+            Course course = hit.course();
+            if (hit.type() == SearchIndex.Type.COURSE) {
+                results.add(new SearchResult(
+                    "Course",
+                    course.getId(),
+                    course.getDisplayName(),
+                    "Professor: " + course.getProfessor(),
+                    course,
+                    null,
+                    hit.score()
+                ));
+            } else {
+                Assignment assignment = hit.assignment();
+                String courseName = course != null ? course.getDisplayName() : "Unknown Course";
+                results.add(new SearchResult(
+                    "Assignment",
+                    assignment.getId(),
+                    assignment.getTitle(),
+                    courseName + " | Due: " + (assignment.getDueDate() != null ?
+                        assignment.getDueDate().toLocalDate().toString() : "No date"),
+                    course,
+                    assignment,
+                    hit.score()
+                ));
+            }
+        }
         return results;
     }
 
     public List<Assignment> filterAssignments(FilterCriteria criteria) {
-        Stream<Assignment> stream = assignmentService.getAllAssignments().stream();
-
-        if (criteria.courseId != null) {
-            stream = stream.filter(a -> criteria.courseId.equals(a.getCourseId()));
-        }
-
-        if (criteria.status != null) {
-            stream = stream.filter(a -> a.getStatus() == criteria.status);
-        }
-
-        if (criteria.startDate != null) {
-            stream = stream.filter(a -> a.getDueDate() != null &&
-                    !a.getDueDate().isBefore(criteria.startDate));
-        }
-
-        if (criteria.endDate != null) {
-            stream = stream.filter(a -> a.getDueDate() != null &&
-                    !a.getDueDate().isAfter(criteria.endDate));
-        }
-
-        if (criteria.overdueOnly) {
-            stream = stream.filter(Assignment::isOverdue);
-        }
-
-        return stream
-                .sorted(Comparator.comparing(Assignment::getDueDate,
-                        Comparator.nullsLast(Comparator.naturalOrder())))
-                .collect(Collectors.toList());
+        return assignmentService.findAssignmentsByDueDate(criteria.toQuery(LocalDateTime.now()));
     }
 
     public static class FilterCriteria {
@@ -120,5 +112,21 @@ public class SearchService {
             this.overdueOnly = overdueOnly;
             return this;
         }
+
+        /**
+         * Converts these criteria into a repository query, resolving
+         * "overdue" against the given time.
+         */
+        public AssignmentQuery toQuery(LocalDateTime now) {
+            AssignmentQuery query = new AssignmentQuery()
+                    .setCourseId(courseId)
+                    .setStatus(status)
+                    .setDueBetween(startDate, endDate);
+            if (overdueOnly) {
+                query.setDueBefore(now)
+                        .setExcludedStatus(AssignmentStatus.SUBMITTED);
+            }
+            return query;
+        }
     }
 }
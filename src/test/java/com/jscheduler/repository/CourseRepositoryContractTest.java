@@ -0,0 +1,153 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.AssignmentStatus;
+import com.jscheduler.model.AssignmentSummary;
+import com.jscheduler.model.Course;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.jscheduler.repository.TestSchedules.BASE;
+import static com.jscheduler.repository.TestSchedules.assignment;
+import static com.jscheduler.repository.TestSchedules.course;
+import static com.jscheduler.repository.TestSchedules.ids;
+import static com.jscheduler.repository.TestSchedules.sortedIds;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Behaviour every CourseRepository backend has to share, so the local and the SQL
+ * backends stay drop-in replacements for each other. Subclasses supply the backend.
+ */
+abstract class CourseRepositoryContractTest {
+
+    protected CourseRepository repository;
+
+    /**
+     * @return An empty repository, closed after each test
+     */
+    protected abstract CourseRepository createRepository() throws Exception;
+
+    @BeforeEach
+    void setUpRepository() throws Exception {
+        repository = createRepository();
+    }
+
+    @AfterEach
+    void closeRepository() {
+        repository.close();
+    }
+
+    @Test
+    void addedCourseReadsBackWithItsAssignments() {
+        Course course = course("Algebra", 3);
+        repository.addCourse(course);
+
+        Course stored = repository.getCourseById(course.getId()).orElseThrow();
+        assertEquals("Algebra", stored.getName());
+        assertEquals(TestSchedules.SEMESTER, stored.getSemester());
+        assertEquals(sortedIds(course.getAssignments()), sortedIds(stored.getAssignments()));
+        assertFalse(course.isDirty());
+        assertTrue(stored.getAssignments().stream().noneMatch(Assignment::isDirty));
+        assertFalse(stored.isDirty());
+        assertEquals(List.of(course.getId()), repository.getAllCourses().stream().map(Course::getId).toList());
+        assertTrue(repository.getCourseById("missing").isEmpty());
+    }
+
+    @Test
+    void singleAssignmentWritesLeaveTheRestOfTheCourseAlone() {
+        Course course = course("Algebra", 2);
+        repository.addCourse(course);
+
+        Assignment added = assignment(course.getId(), 5);
+        repository.addAssignment(added);
+        Assignment edited = repository.getAssignmentById(course.getAssignments().get(0).getId()).orElseThrow();
+        edited.setTitle("Edited");
+        edited.setStatus(AssignmentStatus.SUBMITTED);
+        repository.updateAssignment(edited);
+        repository.deleteAssignment(course.getId(), course.getAssignments().get(1).getId());
+
+        Course stored = repository.getCourseById(course.getId()).orElseThrow();
+        assertEquals(sortedIds(List.of(edited, added)), sortedIds(stored.getAssignments()));
+        Assignment storedEdit = repository.getAssignmentById(edited.getId()).orElseThrow();
+        assertEquals("Edited", storedEdit.getTitle());
+        assertEquals(AssignmentStatus.SUBMITTED, storedEdit.getStatus());
+        assertEquals(added.getTitle(), repository.getAssignmentById(added.getId()).orElseThrow().getTitle());
+        assertTrue(repository.getAssignmentById(course.getAssignments().get(1).getId()).isEmpty());
+    }
+
+    @Test
+    void updateCourseKeepsStoredAssignmentsMissingFromTheCourse() {
+        Course course = course("Algebra", 3);
+        repository.addCourse(course);
+
+        Course edited = repository.getCourseById(course.getId()).orElseThrow();
+        edited.setName("Linear Algebra");
+        Assignment dropped = edited.getAssignments().remove(0);
+        Assignment added = assignment(course.getId(), 7);
+        edited.getAssignments().add(added);
+        repository.updateCourse(edited);
+
+        Course stored = repository.getCourseById(course.getId()).orElseThrow();
+        assertEquals("Linear Algebra", stored.getName());
+        assertTrue(sortedIds(stored.getAssignments()).contains(dropped.getId()));
+        assertTrue(sortedIds(stored.getAssignments()).contains(added.getId()));
+        assertEquals(4, stored.getAssignments().size());
+        assertFalse(edited.isDirty());
+        assertFalse(added.isDirty());
+    }
+
+    @Test
+    void deleteCourseRemovesItsAssignments() {
+        Course kept = course("Algebra", 1);
+        Course deleted = course("Biology", 2);
+        repository.addCourses(List.of(kept, deleted));
+
+        repository.deleteCourse(deleted.getId());
+
+        assertEquals(List.of(kept.getId()), repository.getAllCourses().stream().map(Course::getId).toList());
+        assertTrue(repository.getAssignmentById(deleted.getAssignments().get(0).getId()).isEmpty());
+        assertEquals(sortedIds(kept.getAssignments()), sortedIds(repository.findAssignments(new AssignmentQuery())));
+    }
+
+    @Test
+    void queriesMatchTheInMemoryEvaluation() {
+        List<Course> courses = List.of(course("Algebra", 8), course("Biology", 11));
+        repository.addCourses(courses);
+        List<Assignment> all = courses.stream().flatMap(c -> c.getAssignments().stream()).toList();
+        LocalDateTime now = BASE.plusDays(4);
+
+        List<AssignmentQuery> queries = List.of(
+            AssignmentQuery.byCourse(courses.get(0).getId()),
+            AssignmentQuery.byStatus(AssignmentStatus.NOT_STARTED),
+            AssignmentQuery.overdue(now),
+            AssignmentQuery.upcoming(now, 3),
+            AssignmentQuery.dueBetween(BASE.plusDays(1), BASE.plusDays(6)).setLimit(4));
+        for (AssignmentQuery query : queries) {
+            assertEquals(ids(query.apply(all.stream())), ids(repository.findAssignments(query)));
+            assertEquals(ids(query.apply(all.stream())),
+                repository.findAssignmentSummaries(query).stream().map(AssignmentSummary::id).toList());
+        }
+    }
+
+    @Test
+    void streamAssignmentsPagesThroughEveryRowInDueDateOrder() {
+        // Due dates repeat, so pages have to continue from the (due date, id) position
+        Course course = course("History", 23);
+        for (int i = 0; i < course.getAssignments().size(); i++) {
+            course.getAssignments().get(i).setDueDate(BASE.plusDays(i / 4));
+        }
+        repository.addCourses(List.of(course));
+
+        List<String> expected = ids(course.getAssignments().stream().sorted(AssignmentQuery.DUE_DATE_ORDER).toList());
+        assertEquals(expected, ids(repository.streamAssignments(new AssignmentQuery(), 5).collect(Collectors.toList())));
+        assertEquals(expected.subList(0, 7),
+            ids(repository.streamAssignments(new AssignmentQuery().setLimit(7), 5).collect(Collectors.toList())));
+    }
+}
@@ -0,0 +1,118 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.Course;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DataJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path path;
+    private DataJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        path = tempDir.resolve("journal.log");
+        journal = new DataJournal(path, JsonSnapshotCodec.createObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    void appendedEntriesReadBackInOrder() throws IOException {
+        Course course = new Course("Algebra", "MATH101", "Prof. Noether", null);
+        Assignment assignment = new Assignment("Homework 1", LocalDateTime.of(2025, 10, 1, 23, 59));
+        assignment.setCourseId(course.getId());
+        course.getAssignments().add(assignment);
+
+        journal.append(DataJournal.Entry.putCourse(course));
+        journal.append(DataJournal.Entry.putAssignment(assignment));
+        journal.append(DataJournal.Entry.deleteAssignment(course.getId(), assignment.getId()));
+        journal.append(DataJournal.Entry.deleteCourse(course.getId()));
+
+        List<DataJournal.Entry> entries = journal.readAll();
+
+        assertEquals(List.of(DataJournal.Operation.PUT_COURSE, DataJournal.Operation.PUT_ASSIGNMENT,
+                DataJournal.Operation.DELETE_ASSIGNMENT, DataJournal.Operation.DELETE_COURSE),
+            entries.stream().map(DataJournal.Entry::operation).toList());
+        assertEquals("Algebra", entries.get(0).course().getName());
+        assertEquals(assignment.getId(), entries.get(0).course().getAssignments().get(0).getId());
+        assertEquals(assignment.getDueDate(), entries.get(1).assignment().getDueDate());
+        assertEquals(course.getId(), entries.get(1).courseId());
+        assertEquals(assignment.getId(), entries.get(2).assignmentId());
+        assertNull(entries.get(3).assignmentId());
+        assertEquals(4, journal.getEntryCount());
+    }
+
+    @Test
+    void tornLastRecordIsDroppedAndLaterAppendsStartOnANewLine() throws IOException {
+        journal.append(DataJournal.Entry.deleteCourse("first"));
+        journal.close();
+        Files.writeString(path, "{\"op\":\"DELETE_CO", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        assertEquals(List.of("first"), courseIds(journal.readAll()));
+
+        journal.append(DataJournal.Entry.deleteCourse("second"));
+        assertEquals(List.of("first", "second"), courseIds(journal.readAll()));
+    }
+
+    @Test
+    void corruptRecordIsSkipped() throws IOException {
+        journal.append(DataJournal.Entry.deleteCourse("first"));
+        journal.close();
+        Files.writeString(path, "{\"op\":\"NO_SUCH_OP\"}\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        journal.append(DataJournal.Entry.deleteCourse("second"));
+
+        assertEquals(List.of("first", "second"), courseIds(journal.readAll()));
+    }
+
+    @Test
+    void resetDiscardsEveryRecord() throws IOException {
+        journal.append(DataJournal.Entry.deleteCourse("first"));
+        journal.reset();
+
+        assertEquals(List.of(), journal.readAll());
+        assertEquals(0, journal.getEntryCount());
+    }
+
+    @Test
+    void discardBeforeKeepsRecordsAppendedAfterThePosition() throws IOException {
+        journal.append(DataJournal.Entry.deleteCourse("first"));
+        long position = journal.getPosition();
+        journal.append(DataJournal.Entry.deleteCourse("second"));
+        long laterPosition = journal.getPosition();
+        journal.append(DataJournal.Entry.deleteCourse("third"));
+
+        journal.discardBefore(position);
+        assertEquals(List.of("second", "third"), courseIds(journal.readAll()));
+
+        // Positions taken before the first cut still point at the same records
+        journal.discardBefore(laterPosition);
+        journal.append(DataJournal.Entry.deleteCourse("fourth"));
+        assertEquals(List.of("third", "fourth"), courseIds(journal.readAll()));
+        assertEquals(2, journal.getEntryCount());
+    }
+
+    private static List<String> courseIds(List<DataJournal.Entry> entries) {
+        return entries.stream().map(DataJournal.Entry::courseId).toList();
+    }
+}
@@ -0,0 +1,16 @@
+package com.jscheduler.repository;
+
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+class DataRepositoryContractTest extends CourseRepositoryContractTest {
+
+    @TempDir
+    Path dataDirectory;
+
+    @Override
+    protected CourseRepository createRepository() {
+        return new DataRepository(new DataRepository.Options().setDataDirectory(dataDirectory));
+    }
+}
@@ -0,0 +1,20 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.config.DatabaseConfig;
+import org.junit.jupiter.api.AfterEach;
+
+class H2CourseRepositoryContractTest extends CourseRepositoryContractTest {
+
+    private DatabaseConfig dbConfig;
+
+    @Override
+    protected CourseRepository createRepository() {
+        dbConfig = H2TestDatabase.create();
+        return CourseRepositoryFactory.createDatabaseRepository(dbConfig);
+    }
+
+    @AfterEach
+    void dropDatabase() {
+        dbConfig.close();
+    }
+}
@@ -0,0 +1,43 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.config.DatabaseConfig;
+
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Private in-memory H2 databases in MySQL mode for repository tests.
+ */
+final class H2TestDatabase {
+
+    private static final AtomicInteger DATABASE_COUNT = new AtomicInteger();
+
+    private H2TestDatabase() {
+    }
+
+    /**
+     * Creates an empty database that lives as long as the pool; close the config to drop it.
+     * The batch size is kept small so multi-row writes span several batches.
+     */
+    static DatabaseConfig create() {
+        return new DatabaseConfig(properties());
+    }
+
+    /**
+     * Like {@link #create()}, but records the SQL of every statement it executes.
+     */
+    static RecordingDatabaseConfig createRecording() {
+        return new RecordingDatabaseConfig(properties());
+    }
+
+    private static Properties properties() {
+        Properties props = new Properties();
+        props.setProperty("db.url", "jdbc:h2:mem:jscheduler-test-" + DATABASE_COUNT.incrementAndGet()
+            + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        props.setProperty("db.username", "sa");
+        props.setProperty("db.password", "");
+        props.setProperty("db.pool.maximumPoolSize", "4");
+        props.setProperty("db.batch.size", "3");
+        return props;
+    }
+}
@@ -0,0 +1,267 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.Course;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.jscheduler.repository.TestSchedules.BASE;
+import static com.jscheduler.repository.TestSchedules.assignment;
+import static com.jscheduler.repository.TestSchedules.course;
+import static com.jscheduler.repository.TestSchedules.ids;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the SQL repository against an in-memory H2 database.
+ */
+class JdbcCourseRepositoryTest {
+
+    private RecordingDatabaseConfig dbConfig;
+    private JdbcCourseRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        dbConfig = H2TestDatabase.createRecording();
+        repository = CourseRepositoryFactory.createDatabaseRepository(dbConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+        dbConfig.close();
+    }
+
+    @Test
+    void addCoursesWritesAssignmentsAcrossSeveralBatches() {
+        // Ten assignments with a batch size of three leave a partial last batch
+        Course course = course("Physics", 10);
+        repository.addCourses(List.of(course));
+
+        assertEquals(1, repository.countCourses());
+        assertEquals(ids(course.getAssignments()).stream().sorted().toList(),
+            ids(repository.findAssignments(new AssignmentQuery())).stream().sorted().toList());
+        assertFalse(course.isDirty());
+        assertTrue(course.getAssignments().stream().noneMatch(Assignment::isDirty));
+    }
+
+    @Test
+    void coursesLoadWithABoundedNumberOfQueries() {
+        // 1,201 courses span three chunks of 500 course IDs
+        Instant watermark = repository.currentWatermark();
+        List<Course> courses = IntStream.range(0, 1201)
+            .mapToObj(i -> course("Course " + i, i % 3))
+            .toList();
+        repository.addCourses(courses);
+
+        dbConfig.clear();
+        assertEquals(1201, repository.getAllCourses().size());
+        assertEquals(List.of("SELECT * FROM courses", "SELECT * FROM assignments"),
+            statementTargets(dbConfig.executedSql()));
+
+        dbConfig.clear();
+        repository.getCourseById(courses.get(7).getId()).orElseThrow();
+        assertEquals(List.of("SELECT * FROM courses", "SELECT * FROM assignments"),
+            statementTargets(dbConfig.executedSql()));
+
+        dbConfig.clear();
+        assertEquals(1201, repository.getChangesSince(watermark).changedCourses().size());
+        List<String> executed = statementTargets(dbConfig.executedSql());
+        assertEquals(1, executed.stream().filter("SELECT * FROM courses"::equals).count());
+        assertEquals(3, dbConfig.executedSql().stream()
+            .filter(sql -> sql.startsWith("SELECT * FROM assignments WHERE course_id IN")).count());
+    }
+
+    @Test
+    void changeFeedReportsUpdatesAndDeletionsSinceTheWatermark() {
+        Course kept = course("Algebra", 2);
+        Course deleted = course("Biology", 1);
+        repository.addCourses(List.of(kept, deleted));
+        Instant watermark = repository.currentWatermark();
+
+        Assignment renamed = new Assignment(kept.getAssignments().get(0));
+        renamed.setTitle("Renamed");
+        repository.updateAssignment(renamed);
+        repository.deleteAssignment(kept.getId(), kept.getAssignments().get(1).getId());
+        repository.deleteCourse(deleted.getId());
+
+        ChangeSet changes = repository.getChangesSince(watermark);
+
+        assertFalse(changes.resetRequired());
+        assertEquals(List.of(deleted.getId()), changes.deletedCourseIds());
+        List<Assignment> current = new ArrayList<>(changes.changedAssignments());
+        changes.changedCourses().forEach(course -> current.addAll(course.getAssignments()));
+        assertEquals(List.of("Renamed"), current.stream().map(Assignment::getTitle).toList());
+        assertFalse(changes.watermark().isBefore(watermark));
+    }
+
+    @Test
+    void changeFeedRequiresResetPastTombstoneRetention() {
+        assertTrue(repository.getChangesSince(Instant.EPOCH).resetRequired());
+    }
+
+    @Test
+    void assignmentUpdatesAreStampedWithTheDatabaseClock() {
+        Course course = course("Algebra", 1);
+        repository.addCourse(course);
+
+        Assignment assignment = new Assignment(course.getAssignments().get(0));
+        assignment.setTitle("Edited");
+        assignment.setUpdatedAt(BASE.minusYears(1));
+        repository.updateAssignment(assignment);
+
+        LocalDateTime updatedAt = repository.getAssignmentById(assignment.getId()).orElseThrow().getUpdatedAt();
+        assertTrue(updatedAt.isAfter(LocalDateTime.now().minusHours(1)), "updated_at was " + updatedAt);
+    }
+
+    @Test
+    void insertedAssignmentsAreStampedWithTheDatabaseClockUnlessImported() {
+        Course added = course("Algebra", 1);
+        Course imported = course("Biology", 1);
+        added.getAssignments().get(0).setUpdatedAt(BASE.minusYears(1));
+        imported.getAssignments().get(0).setUpdatedAt(BASE.minusYears(1));
+
+        repository.addCourses(List.of(added));
+        repository.importCourses(List.of(imported));
+
+        LocalDateTime addedAt = repository.getAssignmentById(added.getAssignments().get(0).getId())
+            .orElseThrow().getUpdatedAt();
+        assertTrue(addedAt.isAfter(LocalDateTime.now().minusHours(1)), "updated_at was " + addedAt);
+        assertEquals(BASE.minusYears(1), repository.getAssignmentById(imported.getAssignments().get(0).getId())
+            .orElseThrow().getUpdatedAt());
+    }
+
+    @Test
+    void tombstonesPastRetentionArePurgedOnStartup() throws SQLException {
+        try (Connection conn = dbConfig.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO deleted_records (table_name, record_id, course_id, deleted_at) "
+                + "VALUES ('courses', 'old', 'old', TIMESTAMP '2000-01-01 00:00:00')");
+            stmt.executeUpdate("INSERT INTO deleted_records (table_name, record_id, course_id) "
+                + "VALUES ('courses', 'recent', 'recent')");
+            conn.commit();
+        }
+
+        CourseRepositoryFactory.createDatabaseRepository(dbConfig).close();
+
+        try (Connection conn = dbConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT record_id FROM deleted_records")) {
+            List<String> remaining = new ArrayList<>();
+            while (rs.next()) {
+                remaining.add(rs.getString(1));
+            }
+            conn.commit();
+            assertEquals(List.of("recent"), remaining);
+        }
+    }
+
+    @Test
+    void staleAssignmentUpdateIsRejectedAndWritesNothing() {
+        Course course = course("Algebra", 1);
+        repository.addCourse(course);
+        Assignment first = repository.getAssignmentById(course.getAssignments().get(0).getId()).orElseThrow();
+        Assignment second = repository.getAssignmentById(first.getId()).orElseThrow();
+
+        first.setTitle("First");
+        repository.updateAssignment(first);
+        assertEquals(2, first.getVersion());
+
+        second.setTitle("Second");
+        OptimisticLockException conflict = assertThrows(OptimisticLockException.class,
+            () -> repository.updateAssignment(second));
+        assertEquals(2, conflict.getActualVersion());
+
+        Assignment stored = repository.getAssignmentById(first.getId()).orElseThrow();
+        assertEquals("First", stored.getTitle());
+        assertEquals(2, stored.getVersion());
+    }
+
+    @Test
+    void staleCourseUpdateRollsBackItsAssignments() {
+        Course course = course("Algebra", 1);
+        repository.addCourse(course);
+        Course first = repository.getCourseById(course.getId()).orElseThrow();
+        Course second = repository.getCourseById(course.getId()).orElseThrow();
+
+        first.setName("First");
+        repository.updateCourse(first);
+
+        second.setName("Second");
+        second.getAssignments().get(0).setTitle("Lost");
+        second.getAssignments().add(assignment(course.getId(), 99));
+        assertThrows(OptimisticLockException.class, () -> repository.updateCourse(second));
+
+        Course stored = repository.getCourseById(course.getId()).orElseThrow();
+        assertEquals("First", stored.getName());
+        assertEquals(ids(course.getAssignments()), ids(stored.getAssignments()));
+        assertEquals(course.getAssignments().get(0).getTitle(), stored.getAssignments().get(0).getTitle());
+    }
+
+    @Test
+    void updateOfDeletedAssignmentIsRejected() {
+        Course course = course("Algebra", 1);
+        repository.addCourse(course);
+        Assignment assignment = repository.getAssignmentById(course.getAssignments().get(0).getId()).orElseThrow();
+        repository.deleteAssignment(course.getId(), assignment.getId());
+
+        assignment.setTitle("Edited");
+        OptimisticLockException conflict = assertThrows(OptimisticLockException.class,
+            () -> repository.updateAssignment(assignment));
+        assertEquals(-1, conflict.getActualVersion());
+    }
+
+    @Test
+    void courseUpdateAfterConcurrentAssignmentDeleteIsRejected() {
+        Course course = course("Algebra", 2);
+        repository.addCourse(course);
+        Course edited = repository.getCourseById(course.getId()).orElseThrow();
+        String deletedId = course.getAssignments().get(1).getId();
+        repository.deleteAssignment(course.getId(), deletedId);
+
+        edited.setName("Renamed");
+        OptimisticLockException conflict = assertThrows(OptimisticLockException.class,
+            () -> repository.updateCourse(edited));
+        assertEquals(deletedId, conflict.getEntityId());
+
+        Course stored = repository.getCourseById(course.getId()).orElseThrow();
+        assertEquals("Algebra", stored.getName());
+        assertEquals(List.of(course.getAssignments().get(0).getId()), ids(stored.getAssignments()));
+    }
+
+    @Test
+    void unchangedRowsAreNotWritten() {
+        Course course = course("Algebra", 2);
+        repository.addCourse(course);
+        Course loaded = repository.getCourseById(course.getId()).orElseThrow();
+
+        repository.updateCourse(loaded);
+        repository.updateAssignment(loaded.getAssignments().get(0));
+
+        Course stored = repository.getCourseById(course.getId()).orElseThrow();
+        assertEquals(1, stored.getVersion());
+        assertEquals(1, stored.getAssignments().get(0).getVersion());
+    }
+
+    /**
+     * Reduces each statement to its verb and table, e.g. {@code SELECT * FROM courses}.
+     */
+    private static List<String> statementTargets(List<String> executedSql) {
+        return executedSql.stream()
+            .map(sql -> sql.replaceAll("^(SELECT \\* FROM \\w+).*$", "$1"))
+            .toList();
+    }
+}
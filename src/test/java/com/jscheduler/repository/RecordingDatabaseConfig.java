@@ -0,0 +1,86 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.config.DatabaseConfig;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Database config whose connections record the SQL of every statement executed through
+ * them, so tests can assert how many round trips a repository call makes.
+ */
+class RecordingDatabaseConfig extends DatabaseConfig {
+
+    private final List<String> executedSql = new ArrayList<>();
+
+    RecordingDatabaseConfig(Properties props) {
+        super(props);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        return proxy(Connection.class, connection, (method, args) -> {
+            Object result = method.invoke(connection, args);
+            if (method.getName().equals("prepareStatement")) {
+                String sql = (String) args[0];
+                return proxy(PreparedStatement.class, (PreparedStatement) result,
+                    (statementMethod, statementArgs) -> {
+                        if (statementMethod.getName().startsWith("execute")) {
+                            record(sql);
+                        }
+                        return statementMethod.invoke(result, statementArgs);
+                    });
+            }
+            if (method.getName().equals("createStatement")) {
+                return proxy(Statement.class, (Statement) result, (statementMethod, statementArgs) -> {
+                    if (statementMethod.getName().startsWith("execute")) {
+                        record(statementArgs != null ? (String) statementArgs[0] : "<batch>");
+                    }
+                    return statementMethod.invoke(result, statementArgs);
+                });
+            }
+            return result;
+        });
+    }
+
+    /**
+     * @return The SQL of the statements executed since the last {@link #clear()}, in order
+     */
+    synchronized List<String> executedSql() {
+        return List.copyOf(executedSql);
+    }
+
+    synchronized void clear() {
+        executedSql.clear();
+    }
+
+    private synchronized void record(String sql) {
+        executedSql.add(sql);
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Object invoke(Method method, Object[] args) throws ReflectiveOperationException;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Call call) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            try {
+                return call.invoke(method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+}
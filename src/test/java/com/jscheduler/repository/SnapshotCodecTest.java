@@ -0,0 +1,145 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.migration.ContentChecksum;
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.AssignmentStatus;
+import com.jscheduler.model.Course;
+import com.jscheduler.model.Semester;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Write/read round trips through the JSON and binary snapshot formats.
+ */
+class SnapshotCodecTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 9, 1, 9, 30);
+
+    @TempDir
+    Path tempDir;
+
+    static Stream<SnapshotCodec> codecs() {
+        return Stream.of(new JsonSnapshotCodec(), new BinarySnapshotCodec());
+    }
+
+    @ParameterizedTest
+    @MethodSource("codecs")
+    void roundTripKeepsContentAndOrder(SnapshotCodec codec) throws IOException {
+        // More courses than one binary block holds
+        List<Course> courses = sampleCourses(600);
+        Path file = tempDir.resolve("data");
+
+        codec.write(file, courses);
+        List<Course> read = read(codec, file);
+
+        assertEquals(courses.stream().map(Course::getId).toList(), read.stream().map(Course::getId).toList());
+        ContentChecksum expected = checksum(courses);
+        ContentChecksum actual = checksum(read);
+        assertTrue(expected.matches(actual), "Differing courses: " + expected.differingCourseIds(actual));
+    }
+
+    @ParameterizedTest
+    @MethodSource("codecs")
+    void decodedEntitiesAreClean(SnapshotCodec codec) throws IOException {
+        Path file = tempDir.resolve("data");
+        codec.write(file, sampleCourses(3));
+
+        for (Course course : read(codec, file)) {
+            assertFalse(course.isDirty());
+            assertTrue(course.getAssignments().stream().noneMatch(Assignment::isDirty));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("codecs")
+    void emptySnapshotReadsBackEmpty(SnapshotCodec codec) throws IOException {
+        Path file = tempDir.resolve("data");
+        codec.write(file, List.of());
+
+        assertEquals(List.of(), read(codec, file));
+    }
+
+    @Test
+    void binarySnapshotKeepsRowVersions() throws IOException {
+        List<Course> courses = sampleCourses(2);
+        courses.get(0).setVersion(7);
+        courses.get(1).getAssignments().get(0).setVersion(Integer.MAX_VALUE + 3L);
+        Path file = tempDir.resolve("data.bin");
+
+        BinarySnapshotCodec codec = new BinarySnapshotCodec();
+        codec.write(file, courses);
+        List<Course> read = read(codec, file);
+
+        assertEquals(7, read.get(0).getVersion());
+        assertEquals(0, read.get(1).getVersion());
+        assertEquals(Integer.MAX_VALUE + 3L, read.get(1).getAssignments().get(0).getVersion());
+    }
+
+    @Test
+    void binarySnapshotDetectsCorruption() throws IOException {
+        Path file = tempDir.resolve("data.bin");
+        BinarySnapshotCodec codec = new BinarySnapshotCodec();
+        codec.write(file, sampleCourses(5));
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> read(codec, file));
+    }
+
+    /**
+     * Courses covering the optional fields: missing semester, description, notes and
+     * submission deadline, non-ASCII text and repeated strings. Timestamps are whole
+     * seconds, the precision every format keeps.
+     */
+    static List<Course> sampleCourses(int count) {
+        AssignmentStatus[] statuses = AssignmentStatus.values();
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Semester semester = i % 5 == 0 ? null : new Semester(Semester.Season.values()[i % 3], 2020 + i % 7);
+            Course course = new Course("Course " + i, "C" + i, "Prof. Müller", semester);
+            course.setDescription(i % 2 == 0 ? null : "Über alles, Übung " + i);
+            for (int j = 0; j < i % 4; j++) {
+                Assignment assignment = new Assignment("Task " + j, BASE.plusHours(i * 13L + j));
+                assignment.setCourseId(course.getId());
+                assignment.setStatus(statuses[(i + j) % statuses.length]);
+                assignment.setDescription(j % 2 == 0 ? "Read chapter " + j : null);
+                assignment.setNotes(j == 1 ? "Bring notes ✓" : null);
+                assignment.setSubmissionDeadline(j == 2 ? BASE.plusDays(i) : null);
+                assignment.setCreatedAt(BASE.minusDays(j));
+                assignment.setUpdatedAt(BASE.minusHours(j));
+                course.getAssignments().add(assignment);
+            }
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    private static List<Course> read(SnapshotCodec codec, Path file) throws IOException {
+        List<Course> courses = new ArrayList<>();
+        codec.read(file, courses::add);
+        return courses;
+    }
+
+    private static ContentChecksum checksum(List<Course> courses) {
+        ContentChecksum checksum = new ContentChecksum();
+        courses.forEach(checksum::add);
+        return checksum;
+    }
+}
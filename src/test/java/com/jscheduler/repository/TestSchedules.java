@@ -0,0 +1,52 @@
+package com.jscheduler.repository;
+
+import com.jscheduler.model.Assignment;
+import com.jscheduler.model.AssignmentStatus;
+import com.jscheduler.model.Course;
+import com.jscheduler.model.Semester;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Course and assignment fixtures shared by the repository tests.
+ */
+final class TestSchedules {
+
+    static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 1, 12, 0);
+    static final Semester SEMESTER = new Semester(Semester.Season.FALL, 2025);
+
+    private static final AssignmentStatus[] STATUSES = AssignmentStatus.values();
+
+    private TestSchedules() {
+    }
+
+    /**
+     * @return A new course with {@code assignmentCount} assignments from {@link #assignment}
+     */
+    static Course course(String name, int assignmentCount) {
+        Course course = new Course(name, name.substring(0, 3).toUpperCase() + "101", "Prof. " + name, SEMESTER);
+        for (int i = 0; i < assignmentCount; i++) {
+            course.getAssignments().add(assignment(course.getId(), i));
+        }
+        return course;
+    }
+
+    /**
+     * Due dates interleave across courses and are not in insertion order; statuses cycle.
+     */
+    static Assignment assignment(String courseId, int index) {
+        Assignment assignment = new Assignment("Assignment " + index, BASE.plusDays((index * 7L) % 11));
+        assignment.setCourseId(courseId);
+        assignment.setStatus(STATUSES[index % STATUSES.length]);
+        return assignment;
+    }
+
+    static List<String> ids(List<Assignment> assignments) {
+        return assignments.stream().map(Assignment::getId).toList();
+    }
+
+    static List<String> sortedIds(List<Assignment> assignments) {
+        return assignments.stream().map(Assignment::getId).sorted().toList();
+    }
+}